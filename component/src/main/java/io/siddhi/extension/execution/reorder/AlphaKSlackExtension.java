@@ -22,6 +22,7 @@ import io.siddhi.annotation.Example;
 import io.siddhi.annotation.Extension;
 import io.siddhi.annotation.Parameter;
 import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.SystemParameter;
 import io.siddhi.annotation.util.DataType;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.config.SiddhiQueryContext;
@@ -39,22 +40,40 @@ import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
 import io.siddhi.core.query.processor.stream.StreamProcessor;
+import io.siddhi.core.query.processor.stream.window.ExternalTimeWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.TimeWindowProcessor;
 import io.siddhi.core.util.Scheduler;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.extension.execution.reorder.buffer.BufferEngine;
+import io.siddhi.extension.execution.reorder.buffer.ReorderBuffer;
+import io.siddhi.extension.execution.reorder.buffer.TreeMapReorderBuffer;
+import io.siddhi.extension.execution.reorder.controller.AlphaController;
+import io.siddhi.extension.execution.reorder.controller.AlphaControllerFactory;
+import io.siddhi.extension.execution.reorder.controller.PDAlphaController;
+import io.siddhi.extension.execution.reorder.utils.FrontierTable;
+import io.siddhi.extension.execution.reorder.utils.MemoryGovernor;
+import io.siddhi.extension.execution.reorder.utils.OrderedEmitter;
+import io.siddhi.extension.execution.reorder.utils.StreamingStatistics;
+import io.siddhi.extension.execution.reorder.utils.TimestampHistory;
+import io.siddhi.extension.execution.reorder.utils.VirtualThreads;
 import io.siddhi.extension.execution.reorder.utils.WindowCoverage;
 import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.definition.Attribute;
 import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -116,6 +135,15 @@ import java.util.concurrent.locks.ReentrantLock;
                         description = "The confidence level to be applied in Alpha K-Slack algorithm.",
                         defaultValue = "`0.95` (95%)",
                         type = {DataType.DOUBLE},
+                        optional = true),
+                @Parameter(name = "window.size",
+                        description = "The size of the window, in the unit of the timestamp, over which the " +
+                                "reordered events are aggregated. The runtime window coverage is measured over " +
+                                "this window, and the timestamp history is sized to hold it. Give the length of " +
+                                "the window that follows the processor, such as a `time` or `externalTime` " +
+                                "window.",
+                        defaultValue = "`10,000,000,000`",
+                        type = {DataType.LONG},
                         optional = true)
         },
         parameterOverloads = {
@@ -127,7 +155,147 @@ import java.util.concurrent.locks.ReentrantLock;
                 @ParameterOverload(parameterNames = {"timestamp", "correlation.field", "batch.size", "timeout",
                         "max.k", "discard.late.arrival"}),
                 @ParameterOverload(parameterNames = {"timestamp", "correlation.field", "batch.size", "timeout",
-                        "max.k", "discard.late.arrival", "error.threshold", "confidence.level"})
+                        "max.k", "discard.late.arrival", "error.threshold", "confidence.level"}),
+                @ParameterOverload(parameterNames = {"timestamp", "correlation.field", "batch.size", "timeout",
+                        "max.k", "discard.late.arrival", "error.threshold", "confidence.level", "window.size"})
+        },
+        systemParameter = {
+                @SystemParameter(name = "history.max.size",
+                        description = "The maximum number of event timestamps kept to calculate the runtime " +
+                                "window coverage. The history is sized at each batch to hold the events expected " +
+                                "within the window, based on the event rate of the batch, up to this limit. When " +
+                                "the history is full the smallest timestamp is evicted.",
+                        defaultValue = "1000000",
+                        possibleParameters = "Any positive integer"),
+                @SystemParameter(name = "tuning.mode",
+                        description = "How alpha is recomputed at the end of each batch. In `sync` mode the " +
+                                "events wait while alpha is recomputed, and in `async` mode the statistics of the " +
+                                "batch are handed to a background task, whose result is picked up by the " +
+                                "following events. In `async` mode a batch ending while the previous " +
+                                "recomputation is still running is not used for tuning.",
+                        defaultValue = "sync",
+                        possibleParameters = {"sync", "async"}),
+                @SystemParameter(name = "sampling",
+                        description = "Whether the mean and variance of the correlation field and the event " +
+                                "timestamps used for the runtime window coverage are taken from every event or " +
+                                "from a sample. In `stratified` sampling the events of a batch are split into " +
+                                "strata of consecutive events, and one event at a random position is taken from " +
+                                "each stratum, which keeps the cost of tuning constant for large batch sizes.",
+                        defaultValue = "none",
+                        possibleParameters = {"none", "stratified"}),
+                @SystemParameter(name = "sample.size",
+                        description = "The number of events sampled from each batch in `stratified` sampling. " +
+                                "The default is the sample size that estimates the window coverage within the " +
+                                "error threshold at the confidence level, i.e. (z / (2 * error.threshold))^2 " +
+                                "where z is the critical value of the confidence level.",
+                        defaultValue = "`1068` for the default error threshold and confidence level",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "controller",
+                        description = "The controller that adjusts alpha from the error between the window " +
+                                "coverage threshold and the runtime window coverage of each batch. `pd` adds the " +
+                                "weighted error and its weighted change to alpha, and `pid` is a PID controller " +
+                                "in velocity form whose alpha is clamped to `controller.min.alpha` and " +
+                                "`controller.max.alpha`, which prevents the integral term from winding up.",
+                        defaultValue = "pd",
+                        possibleParameters = {"pd", "pid"}),
+                @SystemParameter(name = "controller.kp",
+                        description = "The proportional gain of the controller.",
+                        defaultValue = "0.5",
+                        possibleParameters = "Any double value"),
+                @SystemParameter(name = "controller.ki",
+                        description = "The integral gain of the `pid` controller.",
+                        defaultValue = "0.1",
+                        possibleParameters = "Any double value"),
+                @SystemParameter(name = "controller.kd",
+                        description = "The derivative gain of the controller.",
+                        defaultValue = "0.8",
+                        possibleParameters = "Any double value"),
+                @SystemParameter(name = "controller.min.alpha",
+                        description = "The smallest alpha the `pid` controller outputs.",
+                        defaultValue = "0",
+                        possibleParameters = "Any non negative double value"),
+                @SystemParameter(name = "controller.max.alpha",
+                        description = "The largest alpha the `pid` controller outputs.",
+                        defaultValue = "1",
+                        possibleParameters = "Any double value not less than `controller.min.alpha`"),
+                @SystemParameter(name = "controller.smoothing.factor",
+                        description = "The weight of the latest alpha when exponentially smoothing the alpha " +
+                                "output by the controller. `1` disables smoothing.",
+                        defaultValue = "1",
+                        possibleParameters = "Any double value in (0, 1]"),
+                @SystemParameter(name = "buffer.engine",
+                        description = "The data structure used to buffer the out-of-order events. `treemap` " +
+                                "keeps the events in a red-black tree, `patience` in sorted runs merged when the " +
+                                "events are released, `sortedarray` in a primitive array kept sorted, `skiplist` " +
+                                "in a skip list, `calendar` in a calendar queue hashing the events into buckets " +
+                                "by timestamp, and `timingwheel` in a hierarchical timing wheel over the " +
+                                "timestamps.",
+                        defaultValue = "treemap",
+                        possibleParameters = {"treemap", "patience", "sortedarray", "skiplist", "calendar",
+                                "timingwheel"}),
+                @SystemParameter(name = "memory.budget",
+                        description = "The number of bytes the buffers of all the reorder processors of the " +
+                                "Siddhi app can hold, estimated from the number of buffered events and their " +
+                                "attributes. When it is exceeded, the largest buffers release their oldest " +
+                                "events as per `memory.overflow.policy`, at their next event or timer. The " +
+                                "smallest budget configured for the reorder extensions of an app applies. " +
+                                "The bytes buffered by each query are logged when the budget is exceeded, and " +
+                                "published as the `reorder.buffered.bytes` gauge of the query when the " +
+                                "statistics of the app are enabled.",
+                        defaultValue = "-1 (the memory is not bounded)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "memory.overflow.policy",
+                        description = "What happens to the events released to meet `memory.budget`. `flush` " +
+                                "emits them ahead of time, and `evict` drops them.",
+                        defaultValue = "flush",
+                        possibleParameters = {"flush", "evict"}),
+                @SystemParameter(name = "state.idle.timeout",
+                        description = "A processing time interval in milliseconds, after which the state of a " +
+                                "partition key is destroyed if its buffers are empty and no events have arrived " +
+                                "for the key. Applies only to queries within a partition.",
+                        defaultValue = "-1 (the states are kept)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "state.retain.frontier",
+                        description = "Whether K, alpha, the largest timestamp and the last emitted timestamp of a " +
+                                "destroyed state are retained, so that a state created again for the key " +
+                                "continues from them. Up to 100000 keys are retained, dropping the least " +
+                                "recently destroyed ones.",
+                        defaultValue = "false",
+                        possibleParameters = {"true", "false"}),
+                @SystemParameter(name = "batch.size.mode",
+                        description = "Whether alpha is retuned every `batch.size` events, or the batch size " +
+                                "adapts to the input. In `adaptive` mode the batch size starts at `batch.size`, " +
+                                "and is doubled when the batch took less than `retune.min.interval` or the " +
+                                "coverage error has converged to within the error threshold, and halved " +
+                                "otherwise. A batch also ends once `retune.max.interval` elapses.",
+                        defaultValue = "fixed",
+                        possibleParameters = {"fixed", "adaptive"}),
+                @SystemParameter(name = "retune.min.interval",
+                        description = "The processing time in milliseconds, below which a batch is considered " +
+                                "too short in the `adaptive` batch size mode.",
+                        defaultValue = "1000",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "retune.max.interval",
+                        description = "The longest processing time in milliseconds between two retunings in the " +
+                                "`adaptive` batch size mode, given at least 15 events have arrived.",
+                        defaultValue = "60000",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "flush.executor",
+                        description = "Where the timeout flushes are emitted. In `scheduler` mode the Siddhi " +
+                                "scheduler thread delivering the timer emits the flushed events, and in " +
+                                "`virtual` mode they are emitted on a virtual thread, hence the timeouts of many " +
+                                "partition keys do not queue behind each other on the scheduler. Requires Java " +
+                                "21 or later, and falls back to `scheduler` mode with a warning on older versions.",
+                        defaultValue = "scheduler",
+                        possibleParameters = {"scheduler", "virtual"}),
+                @SystemParameter(name = "emission.handoff",
+                        description = "Whether a thread finding another thread emitting the released events of " +
+                                "the same state leaves its events to that thread and returns. This keeps the " +
+                                "threads adding events from waiting on a slow downstream, but the events sent " +
+                                "may not have reached the downstream queries when `InputHandler.send()` " +
+                                "returns. By default the thread waits until its events are emitted.",
+                        defaultValue = "false",
+                        possibleParameters = {"true", "false"})
         },
         examples = @Example(
                 syntax = "define stream StockStream (eventTime long, symbol string, volume long);\n\n" +
@@ -137,27 +305,46 @@ import java.util.concurrent.locks.ReentrantLock;
                         "insert into OutputStream;",
                 description = "The query reorders events based on the 'eventTime' attribute value " +
                         "and optimises for aggregating 'volume' attribute considering " +
-                        "last 20 events.")
+                        "last 20 events. The runtime window coverage is measured over the 5 minute time window " +
+                        "that follows.")
 )
 public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.AlphaKSlackState>
         implements SchedulingProcessor {
+    private static final Logger log = Logger.getLogger(AlphaKSlackExtension.class);
+    private static final long MIN_BATCH_SIZE = 15;
+    private static final long MAX_BATCH_SIZE = 1L << 30;
+    private static final int RETAINED_FRONTIERS = 100000;
     private ExpressionExecutor timestampExecutor;
     private ExpressionExecutor correlationFieldExecutor;
-    private Long maxK = Long.MAX_VALUE;
-    private Long timeoutDuration = -1L;
+    private long maxK = Long.MAX_VALUE;
+    private long timeoutDuration = -1L;
     private boolean discardFlag = false;
     private Scheduler scheduler;
-    private ReentrantLock lock = new ReentrantLock();
-    private Long batchSize = 10000L;
+    private long batchSize = 10000L;
     private double errorThreshold = 0.03;
     private double confidenceLevel = 0.95;
-    private double alpha = 1;
     private SiddhiAppContext siddhiAppContext;
     private WindowCoverage windowCoverage;
     private double criticalValue;
-    private long l = 0;
     private long windowSize = 10000000000L;
-    private boolean needScheduling;
+    private boolean windowSizeGiven = false;
+    private int historyMaxSize = 1000000;
+    private boolean asyncTuning = false;
+    private boolean virtualFlushes = false;
+    private boolean emissionHandOff = false;
+    private ExecutorService flushExecutor; //Emits the timeout flushes on virtual threads, when they are supported.
+    private long sampleSize = -1L; //Sample size of a batch, -1 when every event is taken.
+    private boolean adaptiveBatchSize = false;
+    private long minRetuneInterval = 1000L;
+    private long maxRetuneInterval = 60000L;
+    private AlphaController controllerPrototype;
+    private BufferEngine bufferEngine;
+    private MemoryGovernor memoryGovernor;
+    private boolean evictOnOverflow = false;
+    private long eventSize;
+    private String queryName;
+    private long stateIdleTimeout = -1L;
+    private FrontierTable frontierTable;
 
     public AlphaKSlackExtension() {
     }
@@ -174,6 +361,14 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
 
     @Override
     public void start() {
+        if (!windowSizeGiven && isFollowedByTimeWindow()) {
+            log.warn("reorder:akslack() in Siddhi app '" + siddhiAppContext.getName() + "' is followed by a " +
+                    "time window, but its runtime window coverage is measured over " + windowSize + ". Set the " +
+                    "'window.size' parameter to the length of the window.");
+        }
+        if (virtualFlushes && flushExecutor == null) {
+            flushExecutor = VirtualThreads.newExecutor("reorder:akslack()");
+        }
         if (timeoutDuration != -1L) {
             AlphaKSlackState state = stateHolder.getState();
             try {
@@ -181,6 +376,7 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
                     state.lastScheduledTimestamp = siddhiAppContext.getTimestampGenerator().currentTime() +
                             timeoutDuration;
                     scheduler.notifyAt(state.lastScheduledTimestamp);
+                    state.needScheduling = false;
                 }
             } finally {
                 stateHolder.returnState(state);
@@ -188,175 +384,157 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
         }
     }
 
+    /**
+     * Check whether the events are aggregated on a time window following this processor, whose length should then
+     * be given as the window size.
+     */
+    private boolean isFollowedByTimeWindow() {
+        Processor windowProcessor = getNextProcessor();
+        return windowProcessor instanceof TimeWindowProcessor || windowProcessor instanceof ExternalTimeWindowProcessor;
+    }
+
     @Override
     public void stop() {
-        //Do nothing
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor = null;
+        }
     }
 
     @Override
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater,
                            AlphaKSlackState state) {
+        boolean timerArrived = false;
         synchronized (state) {
             ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(true);
             try {
-                lock.lock();
+                if (asyncTuning) {
+                    applyPublishedTuning(state);
+                }
+                long chunkTime = -1L;
+                if (adaptiveBatchSize || stateIdleTimeout != -1L) {
+                    chunkTime = siddhiAppContext.getTimestampGenerator().currentTime();
+                }
+                if (adaptiveBatchSize && state.lastRetuneTime == -1L) {
+                    state.lastRetuneTime = chunkTime;
+                }
                 while (streamEventChunk.hasNext()) {
                     StreamEvent event = streamEventChunk.next();
 
                     if (event.getType() != ComplexEvent.Type.TIMER) {
                         streamEventChunk.remove();
                         long timestamp = (Long) timestampExecutor.execute(event);
-                        state.timestampList.add(timestamp);
-                        double correlationField;
-                        switch (attributeExpressionExecutors[1].getReturnType()) {
-                            case INT:
-                                correlationField = (Integer) correlationFieldExecutor.execute(event);
-                                break;
-                            case LONG:
-                                correlationField = (Long) correlationFieldExecutor.execute(event);
-                                break;
-                            case FLOAT:
-                                correlationField = (Float) correlationFieldExecutor.execute(event);
-                                break;
-                            case DOUBLE:
-                                correlationField = (Double) correlationFieldExecutor.execute(event);
-                                break;
-                            default:
-                                //will not occur at all
-                                correlationField = 0.0;
-
+                        state.lastArrivalTime = chunkTime;
+                        state.batchArrivals++;
+                        if (isSampled(state)) {
+                            state.timestampHistory.add(timestamp);
+                            state.dataItemStatistics.add(getCorrelationField(event));
                         }
-                        state.dataItemList.add(correlationField);
                         if (discardFlag) {
                             if (timestamp < state.lastSentTimestamp) {
                                 continue;
                             }
                         }
 
-                        if (needScheduling) {
+                        if (state.needScheduling) {
                             long currentTime = this.siddhiAppContext.getTimestampGenerator().currentTime();
-                            state.lastScheduledTimestamp = state.lastScheduledTimestamp +
-                                    Math.round(Math.ceil((currentTime - state.lastScheduledTimestamp) / 1000.0)) * 1000;
+                            if (state.lastScheduledTimestamp < 0) {
+                                //First event of a partition, whose state was not there when the query started.
+                                state.lastScheduledTimestamp = currentTime + timeoutDuration;
+                            } else {
+                                state.lastScheduledTimestamp = state.lastScheduledTimestamp + Math.round(
+                                        Math.ceil((currentTime - state.lastScheduledTimestamp) / 1000.0)) * 1000;
+                            }
                             scheduler.notifyAt(state.lastScheduledTimestamp);
-                            needScheduling = false;
+                            state.needScheduling = false;
                         }
 
-                        List<StreamEvent> eventList = state.primaryTreeMap.computeIfAbsent(timestamp,
-                                k1 -> new ArrayList<>());
-                        eventList.add(event);
+                        state.primaryBuffer.add(timestamp, event);
                         state.counter += 1;
-                        if (state.counter > batchSize) {
-                            if (l == 0) {
-                                alpha = calculateAlpha(windowCoverage.calculateWindowCoverageThreshold(criticalValue,
-                                        state.dataItemList), 1, state);
-                                l = Math.round(alpha * state.k);
-                                if (l > state.k) {
-                                    l = state.k;
-                                }
+                        if (state.counter > state.currentBatchSize || (adaptiveBatchSize &&
+                                state.counter >= MIN_BATCH_SIZE &&
+                                chunkTime - state.lastRetuneTime >= maxRetuneInterval)) {
+                            resizeTimestampHistory(state);
+                            double runtimeWindowCoverage = 1;
+                            if (state.l != 0) {
+                                runtimeWindowCoverage = windowCoverage.calculateRuntimeWindowCoverage(timestamp,
+                                        state.timestampHistory, state.l, windowSize);
+                            }
+                            if (asyncTuning) {
+                                submitTuning(state, runtimeWindowCoverage);
                             } else {
-                                alpha = calculateAlpha(windowCoverage.calculateWindowCoverageThreshold(criticalValue,
-                                        state.dataItemList),
-                                        windowCoverage.calculateRuntimeWindowCoverage(timestamp, state.timestampList,
-                                                l, windowSize),
-                                        state);
-                                l = Math.round(alpha * state.k);
-                                if (l > state.k) {
-                                    l = state.k;
-                                }
+                                applyTuning(state, tuneAlpha(state.dataItemStatistics, state.batchArrivals,
+                                        runtimeWindowCoverage, state.k, state.controller));
+                            }
+                            if (adaptiveBatchSize) {
+                                adaptBatchSize(state, chunkTime);
                             }
                             state.counter = 0;
-                            state.dataItemList.clear();
+                            state.batchArrivals = 0;
+                            state.dataItemStatistics.clear();
                         }
                         if (timestamp > state.largestTimestamp) {
                             state.largestTimestamp = timestamp;
-                            long minTimestamp = state.primaryTreeMap.firstKey();
+                            long minTimestamp = state.primaryBuffer.firstTimestamp();
                             long timeDifference = state.largestTimestamp - minTimestamp;
                             if (timeDifference > state.k) {
                                 if (timeDifference < maxK) {
-                                    state.k = Math.round(timeDifference * alpha);
+                                    state.k = Math.round(timeDifference * state.alpha);
                                 } else {
                                     state.k = maxK;
                                 }
                             }
 
-                            Iterator<Map.Entry<Long, List<StreamEvent>>> entryIterator =
-                                    state.primaryTreeMap.entrySet().iterator();
-                            while (entryIterator.hasNext()) {
-                                Map.Entry<Long, List<StreamEvent>> entry = entryIterator.next();
-                                List<StreamEvent> list = state.secondaryTreeMap.get(entry.getKey());
-                                if (list != null) {
-                                    list.addAll(entry.getValue());
-                                } else {
-                                    state.secondaryTreeMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-                                }
-                            }
-                            state.primaryTreeMap.clear();
-                            entryIterator = state.secondaryTreeMap.entrySet().iterator();
-                            while (entryIterator.hasNext()) {
-                                Map.Entry<Long, List<StreamEvent>> entry = entryIterator.next();
-                                if (entry.getKey() + state.k <= state.largestTimestamp) {
-                                    entryIterator.remove();
-                                    List<StreamEvent> timeEventList = entry.getValue();
-                                    state.lastSentTimestamp = entry.getKey();
-
-                                    for (StreamEvent aTimeEventList : timeEventList) {
-                                        complexEventChunk.add(aTimeEventList);
-                                    }
-                                } else {
-                                    break;
-                                }
+                            state.primaryBuffer.transferTo(state.secondaryBuffer);
+                            long lastSentTimestamp = state.secondaryBuffer.drain(
+                                    state.largestTimestamp - state.k, complexEventChunk);
+                            if (lastSentTimestamp != ReorderBuffer.NOTHING_DRAINED) {
+                                state.lastSentTimestamp = lastSentTimestamp;
                             }
                         }
                     } else {
-                        if (timeoutDuration != -1) {
-                            if (state.secondaryTreeMap.size() > 0) {
-                                for (Iterator<Map.Entry<Long, List<StreamEvent>>> iterator =
-                                     state.secondaryTreeMap.entrySet().iterator(); iterator.hasNext(); ) {
-                                    Map.Entry<Long, List<StreamEvent>> longListEntry = iterator.next();
-                                    if (longListEntry.getKey() < timeoutDuration + event.getTimestamp()) {
-                                        List<StreamEvent> timeEventList = longListEntry.getValue();
-
-                                        for (StreamEvent aTimeEventList : timeEventList) {
-                                            complexEventChunk.add(aTimeEventList);
-                                        }
-                                        iterator.remove();
-                                    }
-                                }
-                            }
-
-                            if (state.primaryTreeMap.size() > 0) {
-                                for (Iterator<Map.Entry<Long, List<StreamEvent>>> iterator =
-                                     state.primaryTreeMap.entrySet().iterator(); iterator.hasNext(); ) {
-                                    Map.Entry<Long, List<StreamEvent>> longListEntry = iterator.next();
-                                    if (longListEntry.getKey() < timeoutDuration + event.getTimestamp()) {
-                                        List<StreamEvent> timeEventList = longListEntry.getValue();
-                                        for (StreamEvent aTimeEventList : timeEventList) {
-                                            complexEventChunk.add(aTimeEventList);
-                                        }
-                                        iterator.remove();
-                                    }
-                                }
-                            }
-                            if (state.secondaryTreeMap.size() > 0 || state.primaryTreeMap.size() > 0) {
+                        timerArrived = true;
+                        if (state.nextEvictionCheck != -1L && event.getTimestamp() >= state.nextEvictionCheck) {
+                            state.nextEvictionCheck = -1L;
+                        }
+                        //Eviction checks share the scheduler, hence only the timeout timers flush the buffer.
+                        if (timeoutDuration != -1 && event.getTimestamp() >= state.lastScheduledTimestamp) {
+                            flushTimedOutEvents(state, timeoutDuration + event.getTimestamp() - 1,
+                                    complexEventChunk);
+                            if (!state.isEmpty()) {
                                 state.lastScheduledTimestamp = state.lastScheduledTimestamp + 1000;
                                 scheduler.notifyAt(state.lastScheduledTimestamp);
-                                needScheduling = false;
+                                state.needScheduling = false;
                             } else {
-                                needScheduling = true;
+                                state.needScheduling = true;
                             }
                         }
                     }
                 }
+                if (memoryGovernor != null) {
+                    governMemory(state, complexEventChunk);
+                }
+                if (stateIdleTimeout != -1L && state.nextEvictionCheck == -1L && state.isEmpty() &&
+                        SiddhiAppContext.getPartitionFlowId() != null) {
+                    //The state is checked for eviction when it is returned after the timer.
+                    state.nextEvictionCheck = chunkTime + stateIdleTimeout;
+                    scheduler.notifyAt(state.nextEvictionCheck);
+                }
             } catch (ArrayIndexOutOfBoundsException ec) {
                 //This happens due to user specifying an invalid field index.
                 throw new SiddhiAppCreationException("The very first parameter must be an " +
                         "Integer with a valid " +
                         " field index (0 to (fieldsLength-1)).");
-            } finally {
-                lock.unlock();
             }
-            nextProcessor.process(complexEventChunk);
+            state.emitter.enqueue(complexEventChunk);
+        }
+        //Emitted outside the lock, hence a slow downstream does not hold back the arriving events.
+        ExecutorService executorService = flushExecutor;
+        if (timerArrived && executorService != null) {
+            VirtualThreads.execute(executorService, () -> state.emitter.emit(nextProcessor));
+        } else {
+            state.emitter.emit(nextProcessor);
         }
     }
 
@@ -368,10 +546,10 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
                                                   boolean outputExpectsExpiredEvents, boolean findToBeExecuted,
                                                   SiddhiQueryContext siddhiQueryContext) {
         this.siddhiAppContext = siddhiQueryContext.getSiddhiAppContext();
-        if (attributeExpressionLength > 8 || attributeExpressionLength < 2
+        if (attributeExpressionLength > 9 || attributeExpressionLength < 2
                 || attributeExpressionLength == 7) {
             throw new SiddhiAppCreationException("Number of expected input parameters " +
-                    "are 2 to 6 or 8. But found " + attributeExpressionLength + " attributes.");
+                    "are 2 to 6, 8 or 9. But found " + attributeExpressionLength + " attributes.");
         }
 
         if (attributeExpressionExecutors.length >= 2) {
@@ -472,7 +650,7 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
                 throw new SiddhiAppCreationException("discardFlag must be a constant");
             }
         }
-        if (attributeExpressionExecutors.length == 8) {
+        if (attributeExpressionExecutors.length >= 8) {
             if ((attributeExpressionExecutors[6] instanceof ConstantExpressionExecutor) &&
                     attributeExpressionExecutors[7] instanceof ConstantExpressionExecutor) {
                 if (attributeExpressionExecutors[6].getReturnType() == Attribute.Type.DOUBLE) {
@@ -501,14 +679,118 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
                         "confidenceLevel must be constants");
             }
         }
+        if (attributeExpressionExecutors.length == 9) {
+            if (attributeExpressionExecutors[8] instanceof ConstantExpressionExecutor) {
+                if (attributeExpressionExecutors[8].getReturnType() == Attribute.Type.LONG) {
+                    windowSize = (Long) ((ConstantExpressionExecutor) attributeExpressionExecutors[8]).getValue();
+                    windowSizeGiven = true;
+                } else {
+                    throw new SiddhiAppCreationException("Invalid parameter type found for the ninth argument " +
+                            "of reorder:akslack() function. Required LONG, but found " +
+                            attributeExpressionExecutors[8].getReturnType());
+                }
+                if (windowSize <= 0) {
+                    throw new SiddhiAppCreationException("Window size of reorder:akslack() should be positive, " +
+                            "but found " + windowSize);
+                }
+            } else {
+                throw new SiddhiAppCreationException("windowSize must be a constant");
+            }
+        }
+        bufferEngine = BufferEngine.fromName(configReader.readConfig("buffer.engine", "treemap"));
+        memoryGovernor = MemoryGovernor.fromConfig(configReader, siddhiAppContext, "reorder:akslack()");
+        if (memoryGovernor != null) {
+            evictOnOverflow = MemoryGovernor.isEvictionPolicy(configReader, "reorder:akslack()");
+            eventSize = MemoryGovernor.estimateEventSize(metaStreamEvent);
+            queryName = siddhiQueryContext.getName();
+        }
+        String stateIdleTimeoutConfig = configReader.readConfig("state.idle.timeout", "-1").trim();
+        if (!"-1".equals(stateIdleTimeoutConfig)) {
+            stateIdleTimeout = readInterval(configReader, "state.idle.timeout", -1L);
+            if (Boolean.parseBoolean(configReader.readConfig("state.retain.frontier", "false").trim())) {
+                frontierTable = new FrontierTable(RETAINED_FRONTIERS);
+            }
+        }
+        String historyMaxSizeConfig = configReader.readConfig("history.max.size", "1000000");
+        try {
+            historyMaxSize = Integer.parseInt(historyMaxSizeConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid history max size '" + historyMaxSizeConfig + "' found " +
+                    "for reorder:akslack(). Required a positive integer.", e);
+        }
+        if (historyMaxSize <= 0) {
+            throw new SiddhiAppCreationException("History max size of reorder:akslack() should be positive, " +
+                    "but found " + historyMaxSize);
+        }
+        virtualFlushes = VirtualThreads.isEnabled(configReader, "reorder:akslack()");
+        emissionHandOff = Boolean.parseBoolean(configReader.readConfig("emission.handoff", "false").trim());
+        String tuningMode = configReader.readConfig("tuning.mode", "sync").trim();
+        if ("async".equalsIgnoreCase(tuningMode)) {
+            asyncTuning = true;
+        } else if (!"sync".equalsIgnoreCase(tuningMode)) {
+            throw new SiddhiAppCreationException("Invalid tuning mode '" + tuningMode + "' found for " +
+                    "reorder:akslack(). Supported modes are 'sync' and 'async'.");
+        }
         NormalDistribution actualDistribution = new NormalDistribution();
         criticalValue = Math.abs(actualDistribution.inverseCumulativeProbability
                 ((1 - confidenceLevel) / 2));
         windowCoverage = new WindowCoverage(errorThreshold);
+        controllerPrototype = AlphaControllerFactory.create(configReader);
+
+        String sampling = configReader.readConfig("sampling", "none").trim();
+        if ("stratified".equalsIgnoreCase(sampling)) {
+            //Sample size needed to estimate a proportion within the error threshold at the confidence level.
+            long defaultSampleSize = (long) Math.ceil(Math.pow(criticalValue / (2 * errorThreshold), 2));
+            String sampleSizeConfig = configReader.readConfig("sample.size", String.valueOf(defaultSampleSize));
+            try {
+                sampleSize = Long.parseLong(sampleSizeConfig.trim());
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("Invalid sample size '" + sampleSizeConfig + "' found for " +
+                        "reorder:akslack(). Required a positive long value.", e);
+            }
+            if (sampleSize <= 0) {
+                throw new SiddhiAppCreationException("Sample size of reorder:akslack() should be positive, " +
+                        "but found " + sampleSize);
+            }
+        } else if (!"none".equalsIgnoreCase(sampling)) {
+            throw new SiddhiAppCreationException("Invalid sampling '" + sampling + "' found for " +
+                    "reorder:akslack(). Supported values are 'none' and 'stratified'.");
+        }
+
+        String batchSizeMode = configReader.readConfig("batch.size.mode", "fixed").trim();
+        if ("adaptive".equalsIgnoreCase(batchSizeMode)) {
+            adaptiveBatchSize = true;
+            minRetuneInterval = readInterval(configReader, "retune.min.interval", minRetuneInterval);
+            maxRetuneInterval = readInterval(configReader, "retune.max.interval", maxRetuneInterval);
+            if (maxRetuneInterval < minRetuneInterval) {
+                throw new SiddhiAppCreationException("Maximum retune interval of reorder:akslack() should not be " +
+                        "less than the minimum retune interval " + minRetuneInterval + ", but found " +
+                        maxRetuneInterval);
+            }
+        } else if (!"fixed".equalsIgnoreCase(batchSizeMode)) {
+            throw new SiddhiAppCreationException("Invalid batch size mode '" + batchSizeMode + "' found for " +
+                    "reorder:akslack(). Supported modes are 'fixed' and 'adaptive'.");
+        }
 
         return () -> new AlphaKSlackState();
     }
 
+    private long readInterval(ConfigReader configReader, String name, long defaultValue) {
+        String intervalConfig = configReader.readConfig(name, String.valueOf(defaultValue));
+        long interval;
+        try {
+            interval = Long.parseLong(intervalConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid " + name + " '" + intervalConfig + "' found for " +
+                    "reorder:akslack(). Required a long value in milliseconds.", e);
+        }
+        if (interval <= 0) {
+            throw new SiddhiAppCreationException(name + " of reorder:akslack() should be positive, but found " +
+                    interval);
+        }
+        return interval;
+    }
+
     @Override
     public Scheduler getScheduler() {
         return this.scheduler;
@@ -519,39 +801,292 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
         this.scheduler = scheduler;
     }
 
-    private double calculateAlpha(double windowCoverageThreshold, double runtimeWindowCoverage,
-                                  AlphaKSlackState state) {
+    /**
+     * Emit the buffered events having timestamps up to the given timestamp. Only the released prefix of each
+     * buffer is visited, and the runs of the two buffers are merged so that the events are emitted in timestamp
+     * order. The late events left in the primary buffer stay there, hence the next K update still sees them.
+     * For equal timestamps, the events of the secondary buffer are emitted first as they arrived earlier.
+     */
+    private void flushTimedOutEvents(AlphaKSlackState state, long maxTimestamp,
+                                     ComplexEventChunk<StreamEvent> complexEventChunk) {
+        ReorderBuffer primaryBuffer = state.primaryBuffer;
+        ReorderBuffer secondaryBuffer = state.secondaryBuffer;
+        while (true) {
+            boolean secondaryDue = !secondaryBuffer.isEmpty() && secondaryBuffer.firstTimestamp() <= maxTimestamp;
+            boolean primaryDue = !primaryBuffer.isEmpty() && primaryBuffer.firstTimestamp() <= maxTimestamp;
+            if (secondaryDue && (!primaryDue || secondaryBuffer.firstTimestamp() <= primaryBuffer.firstTimestamp())) {
+                long limit = primaryDue ? primaryBuffer.firstTimestamp() : maxTimestamp;
+                secondaryBuffer.drain(limit, complexEventChunk);
+            } else if (primaryDue) {
+                long limit = secondaryDue ? secondaryBuffer.firstTimestamp() - 1 : maxTimestamp;
+                primaryBuffer.drain(limit, complexEventChunk);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Size the timestamp history to hold twice the events expected within the window, at the event rate observed
+     * over the batch.
+     */
+    private void resizeTimestampHistory(AlphaKSlackState state) {
+        long batchStartTimestamp = state.batchStartTimestamp;
+        state.batchStartTimestamp = state.largestTimestamp;
+        if (batchStartTimestamp == Long.MIN_VALUE || state.largestTimestamp <= batchStartTimestamp) {
+            //The rate is known from the second batch onwards.
+            return;
+        }
+        long batchSpan = state.largestTimestamp - batchStartTimestamp;
+        if (batchSpan <= 0) {
+            return;
+        }
+        //Only the sampled arrivals are kept in the history.
+        double expectedSize = 2.0 * state.counter * windowSize / batchSpan / state.samplingInterval;
+        int size = (int) Math.min(historyMaxSize, Math.max(expectedSize, Math.min(state.currentBatchSize,
+                historyMaxSize)));
+        state.timestampHistory.setMaximumSize(size);
+    }
+
+    /**
+     * Report the size of the buffers to the memory governor, and release the oldest events if the governor has
+     * asked for it. Released events are emitted after the events released in order, or dropped on eviction.
+     */
+    private void governMemory(AlphaKSlackState state, ComplexEventChunk<StreamEvent> complexEventChunk) {
+        memoryGovernor.update(state.bufferUsage,
+                (state.primaryBuffer.size() + state.secondaryBuffer.size()) * eventSize);
+        long bytesToRelease = state.bufferUsage.takeBytesToRelease();
+        if (bytesToRelease > 0) {
+            state.primaryBuffer.transferTo(state.secondaryBuffer);
+            ComplexEventChunk<StreamEvent> releasedEventChunk = evictOnOverflow ?
+                    new ComplexEventChunk<StreamEvent>(true) : complexEventChunk;
+            long lastSentTimestamp = state.secondaryBuffer.drainOldest(
+                    (int) Math.min(Integer.MAX_VALUE, (bytesToRelease + eventSize - 1) / eventSize),
+                    releasedEventChunk);
+            if (lastSentTimestamp != ReorderBuffer.NOTHING_DRAINED) {
+                state.lastSentTimestamp = lastSentTimestamp;
+            }
+            memoryGovernor.update(state.bufferUsage, state.secondaryBuffer.size() * eventSize);
+        }
+    }
+
+    private double getCorrelationField(StreamEvent event) {
+        switch (attributeExpressionExecutors[1].getReturnType()) {
+            case INT:
+                return (Integer) correlationFieldExecutor.execute(event);
+            case LONG:
+                return (Long) correlationFieldExecutor.execute(event);
+            case FLOAT:
+                return (Float) correlationFieldExecutor.execute(event);
+            case DOUBLE:
+                return (Double) correlationFieldExecutor.execute(event);
+            default:
+                //will not occur at all
+                return 0.0;
+        }
+    }
+
+    /**
+     * Decide whether the arriving event is taken into the statistics and the timestamp history. The arrivals are
+     * split into strata of consecutive events, as many as the sampling interval of the state, and one event at a
+     * random position is sampled from each stratum.
+     */
+    private boolean isSampled(AlphaKSlackState state) {
+        if (state.samplingInterval == 1) {
+            return true;
+        }
+        if (state.stratumPosition == 0) {
+            state.stratumSample = ThreadLocalRandom.current().nextInt(state.samplingInterval);
+        }
+        boolean sampled = state.stratumPosition == state.stratumSample;
+        state.stratumPosition = (state.stratumPosition + 1) % state.samplingInterval;
+        return sampled;
+    }
+
+    private AlphaTuning tuneAlpha(StreamingStatistics statistics, long batchArrivals, double runtimeWindowCoverage,
+                                  long k, AlphaController controller) {
+        //The sampled mean and variance stand for the whole batch.
+        double windowCoverageThreshold = windowCoverage.calculateWindowCoverageThreshold(criticalValue,
+                statistics.getMean(), statistics.getVariance(), batchArrivals);
         double error = windowCoverageThreshold - runtimeWindowCoverage;
-        double deltaAlpha = (state.kp * error) + (state.kd * (error - state.previousError));
-        double alpha = Math.abs(state.previousAlpha + deltaAlpha);
-        state.previousError = error;
-        state.previousAlpha = alpha;
-        return alpha;
+        double alpha = controller.nextAlpha(error);
+        long l = Math.round(alpha * k);
+        if (l > k) {
+            l = k;
+        }
+        return new AlphaTuning(alpha, l, error, controller);
+    }
+
+    private void applyTuning(AlphaKSlackState state, AlphaTuning tuning) {
+        state.alpha = tuning.alpha;
+        state.l = tuning.l;
+        state.controller = tuning.controller;
+        state.errorConverged = Math.abs(tuning.error - state.previousError) <= errorThreshold;
+        state.previousError = tuning.error;
+    }
+
+    /**
+     * Double the batch size when the batch was retuned sooner than the minimum retune interval or when the error
+     * has converged, and halve it when the error is still changing, bounding the retuning overhead per second
+     * while keeping the controller responsive to changes in the traffic. The maximum retune interval is enforced
+     * by ending a batch early, regardless of its size.
+     */
+    private void adaptBatchSize(AlphaKSlackState state, long currentTime) {
+        long elapsedTime = currentTime - state.lastRetuneTime;
+        state.lastRetuneTime = currentTime;
+        if (elapsedTime < minRetuneInterval || state.errorConverged) {
+            state.setBatchSize(Math.min(MAX_BATCH_SIZE, state.currentBatchSize * 2));
+        } else {
+            state.setBatchSize(Math.max(MIN_BATCH_SIZE, state.currentBatchSize / 2));
+        }
+    }
+
+    private void applyPublishedTuning(AlphaKSlackState state) {
+        AlphaTuning tuning = state.publishedTuning.getAndSet(null);
+        if (tuning != null) {
+            applyTuning(state, tuning);
+        }
+    }
+
+    /**
+     * Hand the statistics of the batch to a background task, which publishes the new alpha to the state.
+     * Only one task runs at a time for a state, and the task works on copies of the controller and its inputs.
+     */
+    private void submitTuning(AlphaKSlackState state, double runtimeWindowCoverage) {
+        if (!state.tuningInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        //Apply the result of the previous task so that the controller continues from it.
+        applyPublishedTuning(state);
+        StreamingStatistics statistics = new StreamingStatistics(state.dataItemStatistics);
+        long batchArrivals = state.batchArrivals;
+        long k = state.k;
+        AlphaController controller = state.controller.copy();
+        try {
+            siddhiAppContext.getExecutorService().execute(() -> {
+                try {
+                    state.publishedTuning.set(tuneAlpha(statistics, batchArrivals, runtimeWindowCoverage, k,
+                            controller));
+                } catch (RuntimeException e) {
+                    log.error("Error while recomputing alpha of reorder:akslack() in Siddhi app '" +
+                            siddhiAppContext.getName() + "'.", e);
+                } finally {
+                    state.tuningInProgress.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //The app is shutting down, hence the batch is tuned in place.
+            state.tuningInProgress.set(false);
+            applyTuning(state, tuneAlpha(statistics, batchArrivals, runtimeWindowCoverage, k, controller));
+        }
+    }
+
+    /**
+     * Outcome of recomputing alpha, along with the controller state it continues from.
+     */
+    private static class AlphaTuning {
+        private final double alpha;
+        private final long l;
+        private final double error;
+        private final AlphaController controller;
+
+        private AlphaTuning(double alpha, long l, double error, AlphaController controller) {
+            this.alpha = alpha;
+            this.l = l;
+            this.error = error;
+            this.controller = controller;
+        }
     }
 
     class AlphaKSlackState extends State {
-        private Long k = 0L; //In the beginning the K is zero.
-        private Long largestTimestamp = 0L; //Used to track the greatest timestamp of tuples seen so far.
-        private Long lastSentTimestamp = -1L;
-        private Long lastScheduledTimestamp = -1L;
-        private double previousAlpha = 0;
-        private Integer counter = 0;
-        private double previousError = 0;
-        private double kp = 0.5; // Weight configuration parameters
-        private double kd = 0.8;
-        private TreeMap<Long, List<StreamEvent>> primaryTreeMap;
-        private TreeMap<Long, List<StreamEvent>> secondaryTreeMap;
-        private List<Double> dataItemList = new ArrayList<Double>();
-        private List<Long> timestampList = new ArrayList<Long>();
+        private long k = 0L; //In the beginning the K is zero.
+        private long largestTimestamp = 0L; //Used to track the greatest timestamp of tuples seen so far.
+        private long lastSentTimestamp = -1L;
+        private long lastScheduledTimestamp = -1L;
+        private double alpha = 1;
+        private long l = 0;
+        private boolean needScheduling = timeoutDuration != -1L; //Whether the timeout timer has to be started.
+        private AlphaController controller = controllerPrototype.copy();
+        private int counter = 0;
+        private ReorderBuffer primaryBuffer; //Events arrived since the largest timestamp last moved.
+        private ReorderBuffer secondaryBuffer;
+        private MemoryGovernor.BufferUsage bufferUsage;
+        private long lastArrivalTime = -1L; //Processing time of the last arrival, used to detect an idle key.
+        private long nextEvictionCheck = -1L;
+        private StreamingStatistics dataItemStatistics = new StreamingStatistics();
+        private TimestampHistory timestampHistory = new TimestampHistory(historyMaxSize);
+        private long batchArrivals = 0; //Events arrived in the batch, including the discarded ones.
+        private long currentBatchSize;
+        private int samplingInterval;
+        private double previousError = Double.NaN; //Coverage error of the last tuning.
+        private boolean errorConverged = false;
+        private long lastRetuneTime = -1L; //Processing time of the last tuning, used when the batch size adapts.
+        private int stratumPosition = 0;
+        private int stratumSample = 0; //Position of the event sampled from the current stratum.
+        private long batchStartTimestamp = Long.MIN_VALUE; //Largest timestamp when the batch started.
+        //Used in the async tuning mode, the result of the background task waits here until the events pick it up.
+        private final AtomicReference<AlphaTuning> publishedTuning = new AtomicReference<>();
+        //Released chunks waiting to be emitted.
+        private final OrderedEmitter emitter = new OrderedEmitter(emissionHandOff);
+        private final AtomicBoolean tuningInProgress = new AtomicBoolean(false);
 
         public AlphaKSlackState() {
-            primaryTreeMap = new TreeMap<>();
-            secondaryTreeMap = new TreeMap<>();
+            primaryBuffer = bufferEngine.createBuffer();
+            secondaryBuffer = bufferEngine.createBuffer();
+            if (memoryGovernor != null) {
+                bufferUsage = memoryGovernor.register(queryName);
+            }
+            if (frontierTable != null && SiddhiAppContext.getPartitionFlowId() != null) {
+                long[] frontier = frontierTable.remove(SiddhiAppContext.getPartitionFlowId());
+                if (frontier != null) {
+                    k = frontier[0];
+                    largestTimestamp = frontier[1];
+                    lastSentTimestamp = frontier[2];
+                    alpha = Double.longBitsToDouble(frontier[3]);
+                    l = frontier[4];
+                }
+            }
+            setBatchSize(batchSize);
         }
 
+        private void setBatchSize(long size) {
+            this.currentBatchSize = size;
+            if (sampleSize == -1L) {
+                samplingInterval = 1;
+            } else {
+                samplingInterval = (int) Math.min(Integer.MAX_VALUE, Math.max(1,
+                        (size + sampleSize - 1) / sampleSize));
+            }
+            stratumPosition = 0;
+        }
+
+        private boolean isEmpty() {
+            return primaryBuffer.isEmpty() && secondaryBuffer.isEmpty();
+        }
+
+        /**
+         * The state of a partition key can be destroyed once its buffers are empty and no events have arrived for
+         * the idle timeout. A state created by a timer of a destroyed state has no arrivals, hence it is destroyed
+         * right away.
+         */
         @Override
         public boolean canDestroy() {
-            return false;
+            String partitionKey = SiddhiAppContext.getPartitionFlowId();
+            if (stateIdleTimeout == -1L || partitionKey == null || !isEmpty()) {
+                return false;
+            }
+            if (lastArrivalTime != -1L && siddhiAppContext.getTimestampGenerator().currentTime() - lastArrivalTime <
+                    stateIdleTimeout) {
+                return false;
+            }
+            if (frontierTable != null) {
+                frontierTable.put(partitionKey, new long[]{k, largestTimestamp, lastSentTimestamp,
+                        Double.doubleToLongBits(alpha), l});
+            }
+            if (memoryGovernor != null) {
+                memoryGovernor.unregister(bufferUsage);
+            }
+            return true;
         }
 
         @Override
@@ -561,15 +1096,21 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
             state.put("largestTimestamp", largestTimestamp);
             state.put("lastSentTimestamp", lastSentTimestamp);
             state.put("lastScheduledTimestamp", lastScheduledTimestamp);
-            state.put("previousAlpha", previousAlpha);
+            state.put("alpha", alpha);
+            state.put("l", l);
+            state.put("needScheduling", needScheduling);
+            state.put("controller", controller);
             state.put("counter", counter);
+            state.put("primaryBuffer", primaryBuffer);
+            state.put("secondaryBuffer", secondaryBuffer);
+            state.put("dataItemStatistics", dataItemStatistics);
+            state.put("timestampHistory", timestampHistory.toArray());
+            state.put("timestampHistoryMaxSize", timestampHistory.getMaximumSize());
+            state.put("batchStartTimestamp", batchStartTimestamp);
+            state.put("lastArrivalTime", lastArrivalTime);
+            state.put("batchArrivals", batchArrivals);
+            state.put("currentBatchSize", currentBatchSize);
             state.put("previousError", previousError);
-            state.put("kp", kp);
-            state.put("kd", kd);
-            state.put("primaryTreeMap", primaryTreeMap);
-            state.put("secondaryTreeMap", secondaryTreeMap);
-            state.put("dataItemList", dataItemList);
-            state.put("timestampList", timestampList);
             return state;
         }
 
@@ -579,15 +1120,62 @@ public class AlphaKSlackExtension extends StreamProcessor<AlphaKSlackExtension.A
             largestTimestamp = (Long) state.get("largestTimestamp");
             lastSentTimestamp = (Long) state.get("lastSentTimestamp");
             lastScheduledTimestamp = (Long) state.get("lastScheduledTimestamp");
-            previousAlpha = (Double) state.get("previousAlpha");
+            if (state.containsKey("alpha")) {
+                alpha = (Double) state.get("alpha");
+                l = (Long) state.get("l");
+                needScheduling = (Boolean) state.get("needScheduling");
+            }
+            if (state.containsKey("lastArrivalTime")) {
+                lastArrivalTime = (long) state.get("lastArrivalTime");
+            }
+            //The eviction check is rescheduled after the next chunk.
+            nextEvictionCheck = -1L;
+            controller = (AlphaController) state.get("controller");
+            if (controller == null) {
+                //Snapshots taken before the controllers were pluggable hold the state of the PD controller.
+                controller = new PDAlphaController((Double) state.get("kp"), (Double) state.get("kd"),
+                        (Double) state.get("previousAlpha"), (Double) state.get("previousError"));
+            }
             counter = (Integer) state.get("counter");
-            previousError = (Double) state.get("previousError");
-            kp = (Double) state.get("kp");
-            kd = (Double) state.get("kd");
-            primaryTreeMap = (TreeMap<Long, List<StreamEvent>>) state.get("primaryTreeMap");
-            secondaryTreeMap = (TreeMap<Long, List<StreamEvent>>) state.get("secondaryTreeMap");
-            dataItemList = (List<Double>) state.get("dataItemList");
-            timestampList = (List<Long>) state.get("timestampList");
+            primaryBuffer = restoreBuffer(state, "primaryBuffer", "primaryTreeMap");
+            secondaryBuffer = restoreBuffer(state, "secondaryBuffer", "secondaryTreeMap");
+            dataItemStatistics = (StreamingStatistics) state.get("dataItemStatistics");
+            if (dataItemStatistics == null) {
+                //Snapshots taken before the statistics were accumulated hold the correlation field values.
+                dataItemStatistics = new StreamingStatistics();
+                for (Double dataItem : (List<Double>) state.get("dataItemList")) {
+                    dataItemStatistics.add(dataItem);
+                }
+            }
+            if (state.containsKey("currentBatchSize")) {
+                setBatchSize((long) state.get("currentBatchSize"));
+                previousError = (double) state.get("previousError");
+            }
+            //Every arrival was taken into the statistics before sampling was introduced.
+            Object arrivals = state.get("batchArrivals");
+            batchArrivals = arrivals != null ? (long) arrivals : dataItemStatistics.getCount();
+            long[] timestamps = (long[]) state.get("timestampHistory");
+            if (timestamps != null) {
+                timestampHistory = TimestampHistory.fromArray(timestamps,
+                        (int) state.get("timestampHistoryMaxSize"));
+                batchStartTimestamp = (long) state.get("batchStartTimestamp");
+            } else {
+                //Snapshots taken before the history was indexed hold the timestamps in arrival order.
+                timestampHistory = new TimestampHistory(historyMaxSize);
+                for (Long timestamp : (List<Long>) state.get("timestampList")) {
+                    timestampHistory.add(timestamp);
+                }
+                batchStartTimestamp = largestTimestamp;
+            }
+        }
+
+        private ReorderBuffer restoreBuffer(Map<String, Object> state, String key, String legacyKey) {
+            Object buffer = state.get(key);
+            if (buffer != null) {
+                return (ReorderBuffer) buffer;
+            }
+            //Snapshots taken before the buffer engines were used hold the events in a tree map.
+            return new TreeMapReorderBuffer((TreeMap<Long, List<StreamEvent>>) state.get(legacyKey));
         }
     }
 }
@@ -22,6 +22,7 @@ import io.siddhi.annotation.Example;
 import io.siddhi.annotation.Extension;
 import io.siddhi.annotation.Parameter;
 import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.SystemParameter;
 import io.siddhi.annotation.util.DataType;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.config.SiddhiQueryContext;
@@ -42,15 +43,26 @@ import io.siddhi.core.util.Scheduler;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.extension.execution.reorder.buffer.BufferEngine;
+import io.siddhi.extension.execution.reorder.buffer.ReorderBuffer;
+import io.siddhi.extension.execution.reorder.buffer.TreeMapReorderBuffer;
+import io.siddhi.extension.execution.reorder.utils.FrontierTable;
+import io.siddhi.extension.execution.reorder.utils.MemoryGovernor;
+import io.siddhi.extension.execution.reorder.utils.OrderedEmitter;
+import io.siddhi.extension.execution.reorder.utils.ReleasePipeline;
+import io.siddhi.extension.execution.reorder.utils.TimingWheel;
+import io.siddhi.extension.execution.reorder.utils.VirtualThreads;
 import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -95,6 +107,103 @@ import java.util.concurrent.locks.ReentrantLock;
                 @ParameterOverload(parameterNames = {"timestamp", "timeout", "discard.late.arrival"}),
                 @ParameterOverload(parameterNames = {"timestamp", "timeout", "max.k", "discard.late.arrival"})
         },
+        systemParameter = {
+                @SystemParameter(name = "buffer.engine",
+                        description = "The data structure used to buffer the out-of-order events. `treemap` keeps " +
+                                "the events in a red-black tree, and `patience` keeps them in sorted runs that are " +
+                                "merged when the events are released, which makes most of the insertions a " +
+                                "constant time append when the stream is nearly sorted. `sortedarray` keeps them " +
+                                "in a primitive array kept sorted, which does not allocate per event and suits " +
+                                "small buffers. `skiplist` keeps them in a skip list, and `calendar` in a calendar " +
+                                "queue that hashes the events into buckets by timestamp, giving constant time " +
+                                "insertions and releases on average for large buffers of evenly spaced events. " +
+                                "`timingwheel` keeps them in a hierarchical timing wheel over the timestamps, " +
+                                "giving constant time insertions and releases regardless of the spacing, hence " +
+                                "the cost of the timeout flushes stays flat for large buffers.",
+                        defaultValue = "treemap",
+                        possibleParameters = {"treemap", "patience", "sortedarray", "skiplist", "calendar",
+                                "timingwheel"}),
+                @SystemParameter(name = "idle.advance.interval",
+                        description = "A processing time interval in milliseconds, after which the K-Slack " +
+                                "frontier is advanced by the wall-clock time elapsed when no events arrive, so " +
+                                "that the buffered events get released while the input is idle. Events arriving " +
+                                "after an advancement are ordered against the advanced frontier.",
+                        defaultValue = "-1 (the frontier is advanced only by the arriving events)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "memory.budget",
+                        description = "The number of bytes the buffers of all the reorder processors of the " +
+                                "Siddhi app can hold, estimated from the number of buffered events and their " +
+                                "attributes. When it is exceeded, the largest buffers release their oldest " +
+                                "events as per `memory.overflow.policy`, at their next event or timer. The " +
+                                "smallest budget configured for the reorder extensions of an app applies. " +
+                                "The bytes buffered by each query are logged when the budget is exceeded, and " +
+                                "published as the `reorder.buffered.bytes` gauge of the query when the " +
+                                "statistics of the app are enabled.",
+                        defaultValue = "-1 (the memory is not bounded)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "memory.overflow.policy",
+                        description = "What happens to the events released to meet `memory.budget`. `flush` " +
+                                "emits them ahead of time, hence later events having smaller timestamps are out " +
+                                "of order, and `evict` drops them.",
+                        defaultValue = "flush",
+                        possibleParameters = {"flush", "evict"}),
+                @SystemParameter(name = "state.idle.timeout",
+                        description = "A processing time interval in milliseconds, after which the state of a " +
+                                "partition key is destroyed if its buffers are empty and no events have arrived " +
+                                "for the key. Applies only to queries within a partition.",
+                        defaultValue = "-1 (the states are kept)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "state.retain.frontier",
+                        description = "Whether K, the greatest timestamp and the last emitted timestamp of a " +
+                                "destroyed state are retained, so that a state created again for the key " +
+                                "continues from them. Up to 100000 keys are retained, dropping the least " +
+                                "recently destroyed ones.",
+                        defaultValue = "false",
+                        possibleParameters = {"true", "false"}),
+                @SystemParameter(name = "timer.tick",
+                        description = "A processing time interval in milliseconds, at which a single timer " +
+                                "sweeps the states whose timeouts have passed, instead of each state scheduling " +
+                                "its own timer. The states are kept in a hierarchical timing wheel, hence the " +
+                                "timeouts are rounded up to the tick. Suits queries within a partition having " +
+                                "many keys, and applies only when a timeout is given.",
+                        defaultValue = "-1 (each state schedules its own timer)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "execution.mode",
+                        description = "How the released events are emitted. In `sync` mode the thread adding " +
+                                "the events emits the events it releases, and in `pipelined` mode the released " +
+                                "events are handed through a lock-free ring to a dedicated release thread, which " +
+                                "emits them in batches. Hence in `pipelined` mode the downstream of the query " +
+                                "runs on the release thread, in parallel to the reordering of the following " +
+                                "events. Suits streams of high rates having costly downstream queries.",
+                        defaultValue = "sync",
+                        possibleParameters = {"sync", "pipelined"}),
+                @SystemParameter(name = "replay.chunk.size",
+                        description = "The number of events from which a chunk is taken in as a whole, as when " +
+                                "archived events are replayed in large chunks. The events of such a chunk are " +
+                                "sorted with a parallel sort and merged into the buffer, and the K-Slack window " +
+                                "then moves once for the chunk, covering the disorder of the whole chunk. " +
+                                "Chunks holding timer events are taken in one event at a time.",
+                        defaultValue = "-1 (the events are taken in one at a time)",
+                        possibleParameters = "Any positive long value"),
+                @SystemParameter(name = "flush.executor",
+                        description = "Where the timeout flushes run. In `scheduler` mode the Siddhi scheduler " +
+                                "thread delivering the timer flushes the events and emits them. In `virtual` " +
+                                "mode the events flushed on a timer are emitted on a virtual thread, and with " +
+                                "`timer.tick` each due state is also flushed on its own virtual thread, hence " +
+                                "the timeouts of many partition keys do not queue behind each other on the " +
+                                "scheduler. Requires Java 21 or later, and falls back to `scheduler` mode with " +
+                                "a warning on older versions.",
+                        defaultValue = "scheduler",
+                        possibleParameters = {"scheduler", "virtual"}),
+                @SystemParameter(name = "emission.handoff",
+                        description = "Whether a thread finding another thread emitting the released events of " +
+                                "the same state leaves its events to that thread and returns. This keeps the " +
+                                "threads adding events from waiting on a slow downstream, but the events sent " +
+                                "may not have reached the downstream queries when `InputHandler.send()` " +
+                                "returns. By default the thread waits until its events are emitted.",
+                        defaultValue = "false",
+                        possibleParameters = {"true", "false"})
+        },
         examples = @Example(
                 syntax = "define stream StockStream (eventTime long, symbol string, volume long);\n\n" +
                         "@info(name = 'query1')\n" +
@@ -106,6 +215,8 @@ import java.util.concurrent.locks.ReentrantLock;
                         "than the given 'timeout' value (`5000` milliseconds) every second.")
 )
 public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState> implements SchedulingProcessor {
+    private static final int RETAINED_FRONTIERS = 100000;
+    private static final int RELEASE_RING_CAPACITY = 1024;
     private ExpressionExecutor timestampExecutor;
     private long maxK = Long.MAX_VALUE;
     private long timeoutDuration = -1L;
@@ -114,16 +225,37 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
     private ReentrantLock lock = new ReentrantLock();
     private SiddhiAppContext siddhiAppContext;
     private boolean needScheduling = false;
+    private BufferEngine bufferEngine = BufferEngine.TREEMAP;
+    private long idleAdvanceInterval = -1L;
+    private MemoryGovernor memoryGovernor;
+    private boolean evictOnOverflow = false;
+    private long eventSize;
+    private String queryName;
+    private long stateIdleTimeout = -1L;
+    private FrontierTable frontierTable;
+    private TimingWheel<String> timingWheel; //Timeouts of all the states, keyed by partition key.
+    private long nextWheelTick = -1L; //Time of the earliest pending tick timer, guarded by the timing wheel.
+    private long replayChunkSize = -1L;
+    private ReleasePipeline releasePipeline; //Emits the released events on a release thread in the pipelined mode.
+    private boolean virtualFlushes = false;
+    private boolean emissionHandOff = false;
+    private ExecutorService flushExecutor; //Runs the timeout flushes on virtual threads, when they are supported.
 
     @Override
     public void start() {
+        if (releasePipeline != null) {
+            releasePipeline.start(siddhiAppContext.getExecutorService());
+        }
+        if (virtualFlushes && flushExecutor == null) {
+            flushExecutor = VirtualThreads.newExecutor("reorder:kslack()");
+        }
         if (timeoutDuration != -1L) {
             KSlackState state = stateHolder.getState();
             try {
                 if (state.lastScheduledTimestamp < 0) {
                     state.lastScheduledTimestamp = this.siddhiAppContext.getTimestampGenerator().currentTime() +
                             timeoutDuration;
-                    scheduler.notifyAt(state.lastScheduledTimestamp);
+                    scheduleTimeout(state);
                 }
             } finally {
                 stateHolder.returnState(state);
@@ -133,7 +265,13 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
 
     @Override
     public void stop() {
-        //Do nothing
+        if (releasePipeline != null) {
+            releasePipeline.stop();
+        }
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor = null;
+        }
     }
 
     @Override
@@ -141,9 +279,18 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
                            StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater,
                            KSlackState state) {
         ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(true);
+        boolean timerArrived = false;
         synchronized (state) {
             try {
                 lock.lock();
+                long arrivalTime = -1L;
+                if (idleAdvanceInterval != -1L || stateIdleTimeout != -1L) {
+                    arrivalTime = this.siddhiAppContext.getTimestampGenerator().currentTime();
+                }
+                if (replayChunkSize != -1L && countReplayEvents(streamEventChunk) >= replayChunkSize) {
+                    //The chunk is taken in as a whole, leaving nothing to the per event path.
+                    addReplayChunk(streamEventChunk, state, arrivalTime, complexEventChunk);
+                }
                 while (streamEventChunk.hasNext()) {
                     StreamEvent event = streamEventChunk.next();
 
@@ -153,6 +300,7 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
                         //We might have the rest of the events linked to this event forming a chain.
 
                         long timestamp = (Long) timestampExecutor.execute(event);
+                        state.lastArrivalTime = arrivalTime;
 
                         if (expireFlag) {
                             if (timestamp < state.lastSentTimeStamp) {
@@ -160,69 +308,30 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
                             }
                         }
 
-                        if (needScheduling) {
-                            long currentTime = this.siddhiAppContext.getTimestampGenerator().currentTime();
-                            state.lastScheduledTimestamp = state.lastScheduledTimestamp +
-                                    Math.round(Math.ceil((currentTime - state.lastScheduledTimestamp) / 1000.0)) * 1000;
-                            scheduler.notifyAt(state.lastScheduledTimestamp);
-                            needScheduling = false;
-                        }
-                        ArrayList<StreamEvent> eventList;
-                        eventList = state.eventTreeMap.get(timestamp);
-                        if (eventList == null) {
-                            eventList = new ArrayList<StreamEvent>();
-                        }
-                        eventList.add(event);
-                        state.eventTreeMap.put(timestamp, eventList);
+                        scheduleTimeoutOnArrival(state);
+                        state.eventBuffer.add(timestamp, event);
 
                         if (timestamp > state.greatestTimestamp) {
-                            state.greatestTimestamp = timestamp;
-                            long minTimestamp = state.eventTreeMap.firstKey();
-                            long timeDifference = state.greatestTimestamp - minTimestamp;
-
-                            if (timeDifference > state.k) {
-                                if (timeDifference < maxK) {
-                                    state.k = timeDifference;
-                                } else {
-                                    state.k = maxK;
-                                }
-                            }
-
-                            Iterator<Map.Entry<Long, ArrayList<StreamEvent>>> entryIterator =
-                                    state.eventTreeMap.entrySet().iterator();
-                            while (entryIterator.hasNext()) {
-                                Map.Entry<Long, ArrayList<StreamEvent>> entry = entryIterator.next();
-                                ArrayList<StreamEvent> list = state.expiredEventTreeMap.get(entry.getKey());
-
-                                if (list != null) {
-                                    list.addAll(entry.getValue());
-                                } else {
-                                    state.expiredEventTreeMap.put(entry.getKey(), entry.getValue());
-                                }
-                            }
-                            state.eventTreeMap = new TreeMap<Long, ArrayList<StreamEvent>>();
-                            entryIterator = state.expiredEventTreeMap.entrySet().iterator();
-                            while (entryIterator.hasNext()) {
-                                Map.Entry<Long, ArrayList<StreamEvent>> entry = entryIterator.next();
-                                if (entry.getKey() + state.k <= state.greatestTimestamp) {
-                                    entryIterator.remove();
-                                    ArrayList<StreamEvent> timeEventList = entry.getValue();
-                                    state.lastSentTimeStamp = entry.getKey();
-
-                                    for (StreamEvent aTimeEventList : timeEventList) {
-                                        complexEventChunk.add(aTimeEventList);
-                                    }
-                                } else {
-                                    break;
-                                }
-                            }
+                            advanceGreatestTimestamp(state, timestamp, arrivalTime, complexEventChunk);
                         }
                     } else {
-                        if (timeoutDuration != -1L) {
-                            if (state.expiredEventTreeMap.size() > 0) {
-                                onTimerEvent(state.expiredEventTreeMap, nextProcessor, event.getTimestamp());
+                        timerArrived = true;
+                        if (state.nextEvictionCheck != -1L && event.getTimestamp() >= state.nextEvictionCheck) {
+                            state.nextEvictionCheck = -1L;
+                        }
+                        if (idleAdvanceInterval != -1L && state.nextIdleCheck != -1L &&
+                                event.getTimestamp() >= state.nextIdleCheck) {
+                            state.nextIdleCheck = -1L;
+                            advanceIdleFrontier(state, complexEventChunk);
+                        }
+                        //Idle checks share the scheduler, hence only the timeout timers flush the buffer.
+                        if (timeoutDuration != -1L && timingWheel == null &&
+                                event.getTimestamp() >= state.lastScheduledTimestamp) {
+                            if (!state.expiredEventBuffer.isEmpty()) {
+                                state.expiredEventBuffer.drain(timeoutDuration + event.getTimestamp() - 1,
+                                        complexEventChunk);
                             }
-                            if (state.expiredEventTreeMap.size() > 0) {
+                            if (!state.expiredEventBuffer.isEmpty()) {
                                 state.lastScheduledTimestamp = state.lastScheduledTimestamp + 1000;
                                 scheduler.notifyAt(state.lastScheduledTimestamp);
                                 needScheduling = false;
@@ -232,6 +341,16 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
                         }
                     }
                 }
+                if (idleAdvanceInterval != -1L && state.nextIdleCheck == -1L &&
+                        (!state.eventBuffer.isEmpty() || !state.expiredEventBuffer.isEmpty())) {
+                    state.nextIdleCheck = state.lastArrivalTime + idleAdvanceInterval;
+                    scheduler.notifyAt(state.nextIdleCheck);
+                }
+                if (memoryGovernor != null) {
+                    governMemory(state, complexEventChunk);
+                }
+                scheduleEvictionCheck(state, arrivalTime);
+                release(state, complexEventChunk, nextProcessor);
             } catch (ArrayIndexOutOfBoundsException ec) {
                 //This happens due to user specifying an invalid field index.
                 throw new SiddhiAppCreationException("The very first parameter must be an Integer with a valid " +
@@ -240,8 +359,17 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
                 lock.unlock();
             }
         }
-        if (nextProcessor != null) {
-            nextProcessor.process(complexEventChunk);
+        //Emitted outside the lock, hence a slow downstream does not hold back the arriving events.
+        if (releasePipeline == null && nextProcessor != null) {
+            ExecutorService executorService = flushExecutor;
+            if (timerArrived && executorService != null) {
+                VirtualThreads.execute(executorService, () -> state.emitter.emit(nextProcessor));
+            } else {
+                state.emitter.emit(nextProcessor);
+            }
+        }
+        if (timerArrived && timingWheel != null) {
+            sweepTimingWheel(nextProcessor);
         }
     }
 
@@ -252,6 +380,71 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
                                              boolean outputExpectsExpiredEvents,
                                              boolean findToBeExecuted, SiddhiQueryContext siddhiQueryContext) {
         this.siddhiAppContext = siddhiQueryContext.getSiddhiAppContext();
+        this.bufferEngine = BufferEngine.fromName(configReader.readConfig("buffer.engine", "treemap"));
+        this.memoryGovernor = MemoryGovernor.fromConfig(configReader, siddhiAppContext, "reorder:kslack()");
+        if (memoryGovernor != null) {
+            this.evictOnOverflow = MemoryGovernor.isEvictionPolicy(configReader, "reorder:kslack()");
+            this.eventSize = MemoryGovernor.estimateEventSize(metaStreamEvent);
+            this.queryName = siddhiQueryContext.getName();
+        }
+        String idleAdvanceIntervalConfig = configReader.readConfig("idle.advance.interval", "-1");
+        try {
+            idleAdvanceInterval = Long.parseLong(idleAdvanceIntervalConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid idle advance interval '" + idleAdvanceIntervalConfig +
+                    "' found for reorder:kslack(). Required a long value in milliseconds.", e);
+        }
+        if (idleAdvanceInterval <= 0 && idleAdvanceInterval != -1L) {
+            throw new SiddhiAppCreationException("Idle advance interval of reorder:kslack() should be positive, " +
+                    "but found " + idleAdvanceInterval);
+        }
+        String stateIdleTimeoutConfig = configReader.readConfig("state.idle.timeout", "-1");
+        try {
+            stateIdleTimeout = Long.parseLong(stateIdleTimeoutConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid state idle timeout '" + stateIdleTimeoutConfig +
+                    "' found for reorder:kslack(). Required a long value in milliseconds.", e);
+        }
+        if (stateIdleTimeout <= 0 && stateIdleTimeout != -1L) {
+            throw new SiddhiAppCreationException("State idle timeout of reorder:kslack() should be positive, " +
+                    "but found " + stateIdleTimeout);
+        }
+        if (stateIdleTimeout != -1L &&
+                Boolean.parseBoolean(configReader.readConfig("state.retain.frontier", "false").trim())) {
+            frontierTable = new FrontierTable(RETAINED_FRONTIERS);
+        }
+        String executionMode = configReader.readConfig("execution.mode", "sync").trim();
+        if ("pipelined".equalsIgnoreCase(executionMode)) {
+            releasePipeline = new ReleasePipeline(RELEASE_RING_CAPACITY, "reorder:kslack()");
+        } else if (!"sync".equalsIgnoreCase(executionMode)) {
+            throw new SiddhiAppCreationException("Invalid execution mode '" + executionMode + "' found for " +
+                    "reorder:kslack(). Supported modes are 'sync' and 'pipelined'.");
+        }
+        virtualFlushes = VirtualThreads.isEnabled(configReader, "reorder:kslack()");
+        emissionHandOff = Boolean.parseBoolean(configReader.readConfig("emission.handoff", "false").trim());
+        String replayChunkSizeConfig = configReader.readConfig("replay.chunk.size", "-1");
+        try {
+            replayChunkSize = Long.parseLong(replayChunkSizeConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid replay chunk size '" + replayChunkSizeConfig + "' found " +
+                    "for reorder:kslack(). Required a long value.", e);
+        }
+        if (replayChunkSize <= 0 && replayChunkSize != -1L) {
+            throw new SiddhiAppCreationException("Replay chunk size of reorder:kslack() should be positive, but " +
+                    "found " + replayChunkSize);
+        }
+        String timerTickConfig = configReader.readConfig("timer.tick", "-1");
+        long timerTick;
+        try {
+            timerTick = Long.parseLong(timerTickConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid timer tick '" + timerTickConfig + "' found for " +
+                    "reorder:kslack(). Required a long value in milliseconds.", e);
+        }
+        if (timerTick <= 0 && timerTick != -1L) {
+            throw new SiddhiAppCreationException("Timer tick of reorder:kslack() should be positive, but found " +
+                    timerTick);
+        }
         if (attributeExpressionLength > 4) {
             throw new SiddhiAppCreationException("Maximum four input parameters can be specified for KSlack. " +
                     " Timestamp field (long), k-slack buffer expiration time-out window (long), Max_K size (long), "
@@ -361,6 +554,9 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
             throw new SiddhiAppCreationException("Return type expected by KSlack is LONG but found " +
                     attributeExpressionExecutors[0].getReturnType());
         }
+        if (timerTick != -1L && timeoutDuration != -1L) {
+            timingWheel = new TimingWheel<>(timerTick, siddhiAppContext.getTimestampGenerator().currentTime());
+        }
         return KSlackState::new;
     }
 
@@ -374,24 +570,326 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
         return this.scheduler;
     }
 
-    private void onTimerEvent(TreeMap<Long, ArrayList<StreamEvent>> treeMap, Processor nextProcessor,
-                              long currentTimestamp) {
-        Iterator<Map.Entry<Long, ArrayList<StreamEvent>>> entryIterator = treeMap.entrySet().iterator();
-        ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(false);
+    /**
+     * Schedule the timeout of the state at its last scheduled timestamp, either with its own timer or in the
+     * timing wheel swept by a single timer.
+     */
+    private void scheduleTimeout(KSlackState state) {
+        if (timingWheel == null) {
+            scheduler.notifyAt(state.lastScheduledTimestamp);
+            return;
+        }
+        state.timeoutScheduled = true;
+        synchronized (timingWheel) {
+            timingWheel.schedule(SiddhiAppContext.getPartitionFlowId(), state.lastScheduledTimestamp);
+            scheduleWheelTick();
+        }
+    }
+
+    /**
+     * Keep a single timer pending at the end of the current tick while the timing wheel holds timeouts.
+     * Should be called holding the lock of the timing wheel.
+     */
+    private void scheduleWheelTick() {
+        if (!timingWheel.isEmpty()) {
+            long tickTime = timingWheel.getNextTickTime();
+            if (nextWheelTick == -1L || tickTime < nextWheelTick) {
+                nextWheelTick = tickTime;
+                scheduler.notifyAt(tickTime);
+            }
+        }
+    }
 
-        while (entryIterator.hasNext()) {
-            Map.Entry<Long, ArrayList<StreamEvent>> entry = entryIterator.next();
-            if (entry.getKey() < timeoutDuration + currentTimestamp) {
-                ArrayList<StreamEvent> timeEventList = entry.getValue();
-                for (StreamEvent aTimeEventList : timeEventList) {
-                    complexEventChunk.add(aTimeEventList);
+    /**
+     * Turn the timing wheel up to the current time and flush the timed out events of the due states, each within
+     * the partition flow of its key so that the downstream processors see the right partition. The due states are
+     * flushed concurrently when the flushes run on virtual threads.
+     */
+    private void sweepTimingWheel(Processor nextProcessor) {
+        long currentTime = this.siddhiAppContext.getTimestampGenerator().currentTime();
+        List<String> dueKeys;
+        synchronized (timingWheel) {
+            if (nextWheelTick != -1L && currentTime >= nextWheelTick) {
+                nextWheelTick = -1L;
+            }
+            dueKeys = timingWheel.advance(currentTime);
+        }
+        ExecutorService executorService = flushExecutor;
+        if (!dueKeys.isEmpty() && executorService != null) {
+            for (String dueKey : dueKeys) {
+                VirtualThreads.execute(executorService, dueKey, () -> {
+                    KSlackState state = stateHolder.getState();
+                    try {
+                        flushTimedOutEvents(state, nextProcessor, currentTime);
+                    } finally {
+                        stateHolder.returnState(state);
+                    }
+                });
+            }
+        } else if (!dueKeys.isEmpty()) {
+            String partitionKey = SiddhiAppContext.getPartitionFlowId();
+            try {
+                for (String dueKey : dueKeys) {
+                    if (dueKey == null) {
+                        SiddhiAppContext.stopPartitionFlow();
+                    } else {
+                        SiddhiAppContext.startPartitionFlow(dueKey);
+                    }
+                    KSlackState state = stateHolder.getState();
+                    try {
+                        flushTimedOutEvents(state, nextProcessor, currentTime);
+                    } finally {
+                        stateHolder.returnState(state);
+                    }
+                }
+            } finally {
+                if (partitionKey == null) {
+                    SiddhiAppContext.stopPartitionFlow();
+                } else {
+                    SiddhiAppContext.startPartitionFlow(partitionKey);
+                }
+            }
+        }
+        synchronized (timingWheel) {
+            scheduleWheelTick();
+        }
+    }
+
+    /**
+     * Flush the events of a state whose timeout has passed in the timing wheel, as its own timer would have.
+     * Only the lock of the state is held while flushing, hence the due states of different partition keys are
+     * flushed concurrently. The lock of the processor is taken only to hand the events to the release pipeline.
+     */
+    private void flushTimedOutEvents(KSlackState state, Processor nextProcessor, long currentTime) {
+        ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        synchronized (state) {
+            state.timeoutScheduled = false;
+            if (!state.expiredEventBuffer.isEmpty()) {
+                state.expiredEventBuffer.drain(timeoutDuration + state.lastScheduledTimestamp - 1,
+                        complexEventChunk);
+            }
+            if (!state.expiredEventBuffer.isEmpty()) {
+                state.lastScheduledTimestamp = state.lastScheduledTimestamp + 1000;
+                scheduleTimeout(state);
+            }
+            if (memoryGovernor != null) {
+                governMemory(state, complexEventChunk);
+            }
+            scheduleEvictionCheck(state, currentTime);
+            if (releasePipeline != null) {
+                lock.lock();
+                try {
+                    release(state, complexEventChunk, nextProcessor);
+                } finally {
+                    lock.unlock();
                 }
-                entryIterator.remove();
             } else {
-                break;
+                release(state, complexEventChunk, nextProcessor);
             }
         }
-        nextProcessor.process(complexEventChunk);
+        if (releasePipeline == null && nextProcessor != null) {
+            state.emitter.emit(nextProcessor);
+        }
+    }
+
+    /**
+     * Start the timeout timer of the state on an arrival, if it is not running.
+     */
+    private void scheduleTimeoutOnArrival(KSlackState state) {
+        if (timingWheel != null ? !state.timeoutScheduled : needScheduling) {
+            long currentTime = this.siddhiAppContext.getTimestampGenerator().currentTime();
+            if (state.lastScheduledTimestamp < 0) {
+                //A state created within a partition has not been scheduled at the start.
+                state.lastScheduledTimestamp = currentTime + timeoutDuration;
+            } else {
+                state.lastScheduledTimestamp = state.lastScheduledTimestamp + Math.round(
+                        Math.ceil((currentTime - state.lastScheduledTimestamp) / 1000.0)) * 1000;
+            }
+            scheduleTimeout(state);
+            needScheduling = false;
+        }
+    }
+
+    /**
+     * Move the greatest timestamp to the given larger one, widen K to cover the events arrived since it last
+     * moved, and release the events falling behind the K-Slack window.
+     */
+    private void advanceGreatestTimestamp(KSlackState state, long timestamp, long arrivalTime,
+                                          ComplexEventChunk<StreamEvent> complexEventChunk) {
+        state.greatestTimestamp = timestamp;
+        state.frontierTime = arrivalTime;
+        long minTimestamp = state.eventBuffer.firstTimestamp();
+        long timeDifference = state.greatestTimestamp - minTimestamp;
+
+        if (timeDifference > state.k) {
+            if (timeDifference < maxK) {
+                state.k = timeDifference;
+            } else {
+                state.k = maxK;
+            }
+        }
+        releaseBehindWindow(state, complexEventChunk);
+    }
+
+    private void releaseBehindWindow(KSlackState state, ComplexEventChunk<StreamEvent> complexEventChunk) {
+        state.eventBuffer.transferTo(state.expiredEventBuffer);
+        long lastSentTimestamp = state.expiredEventBuffer.drain(state.greatestTimestamp - state.k,
+                complexEventChunk);
+        if (lastSentTimestamp != ReorderBuffer.NOTHING_DRAINED) {
+            state.lastSentTimeStamp = lastSentTimestamp;
+        }
+    }
+
+    /**
+     * Count the events of a chunk that can be taken in as a replay chunk.
+     *
+     * @return the number of events, or -1 if the chunk holds timer events
+     */
+    private static int countReplayEvents(ComplexEventChunk<StreamEvent> streamEventChunk) {
+        int count = 0;
+        for (ComplexEvent event = streamEventChunk.getFirst(); event != null; event = event.getNext()) {
+            if (event.getType() == ComplexEvent.Type.TIMER) {
+                return -1;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Take in a large chunk of a replay as a whole. K is first worked out by a scan of the timestamps in arrival
+     * order, reaching the value it would have reached with the events taken in one at a time. The events are then
+     * sorted on the timestamp with a parallel sort, which keeps the arrival order of the events having the same
+     * timestamp, and the sorted run is handed to the buffer as a whole, which merges it without searching for each
+     * event. The events behind the K-Slack window are released once for the chunk, in order, hence an event the per
+     * event path would have released before a later arriving smaller one may be held until the window moves again.
+     */
+    private void addReplayChunk(ComplexEventChunk<StreamEvent> streamEventChunk, KSlackState state,
+                                long arrivalTime, ComplexEventChunk<StreamEvent> complexEventChunk) {
+        TimestampedEvent[] events = new TimestampedEvent[countReplayEvents(streamEventChunk)];
+        int count = 0;
+        streamEventChunk.reset();
+        while (streamEventChunk.hasNext()) {
+            StreamEvent event = streamEventChunk.next();
+            streamEventChunk.remove();
+            long timestamp = (Long) timestampExecutor.execute(event);
+            if (expireFlag && timestamp < state.lastSentTimeStamp) {
+                continue;
+            }
+            events[count++] = new TimestampedEvent(timestamp, event);
+        }
+        state.lastArrivalTime = arrivalTime;
+        if (count == 0) {
+            return;
+        }
+        scheduleTimeoutOnArrival(state);
+        long greatestTimestamp = state.greatestTimestamp;
+        long k = state.k;
+        //Smallest timestamp arrived since the greatest timestamp last moved.
+        long minTimestamp = state.eventBuffer.isEmpty() ? Long.MAX_VALUE : state.eventBuffer.firstTimestamp();
+        for (int i = 0; i < count; i++) {
+            long timestamp = events[i].getTimestamp();
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            if (timestamp > greatestTimestamp) {
+                greatestTimestamp = timestamp;
+                long timeDifference = greatestTimestamp - minTimestamp;
+                if (timeDifference > k) {
+                    k = timeDifference < maxK ? timeDifference : maxK;
+                }
+                minTimestamp = Long.MAX_VALUE;
+            }
+        }
+
+        Arrays.parallelSort(events, 0, count, Comparator.comparingLong(TimestampedEvent::getTimestamp));
+        long[] sortedTimestamps = new long[count];
+        StreamEvent[] sortedEvents = new StreamEvent[count];
+        for (int i = 0; i < count; i++) {
+            sortedTimestamps[i] = events[i].getTimestamp();
+            sortedEvents[i] = events[i].getEvent();
+        }
+        state.eventBuffer.addSortedRun(sortedTimestamps, sortedEvents, 0, count);
+        if (greatestTimestamp > state.greatestTimestamp) {
+            state.greatestTimestamp = greatestTimestamp;
+            state.frontierTime = arrivalTime;
+            state.k = k;
+            releaseBehindWindow(state, complexEventChunk);
+        }
+    }
+
+    /**
+     * Hand the released chunk over to the release thread in the pipelined mode, or queue it to be emitted by the
+     * calling thread after the locks are released. Should be called holding the lock of the state, and also the
+     * lock of the processor in the pipelined mode, which makes the ingest threads a single producer of the release
+     * pipeline.
+     */
+    private void release(KSlackState state, ComplexEventChunk<StreamEvent> complexEventChunk,
+                         Processor nextProcessor) {
+        if (releasePipeline != null) {
+            releasePipeline.publish(complexEventChunk, nextProcessor);
+        } else {
+            state.emitter.enqueue(complexEventChunk);
+        }
+    }
+
+    /**
+     * Schedule a check to destroy the state of a partition key once its buffers are empty.
+     */
+    private void scheduleEvictionCheck(KSlackState state, long currentTime) {
+        if (stateIdleTimeout != -1L && state.nextEvictionCheck == -1L && state.isEmpty() &&
+                SiddhiAppContext.getPartitionFlowId() != null) {
+            //The state is checked for eviction when it is returned after the timer.
+            state.nextEvictionCheck = currentTime + stateIdleTimeout;
+            scheduler.notifyAt(state.nextEvictionCheck);
+        }
+    }
+
+    /**
+     * Advance the frontier by the wall-clock time elapsed since it last moved, if no events have arrived during
+     * the idle advance interval, and release the events that fall behind the advanced frontier.
+     */
+    private void advanceIdleFrontier(KSlackState state, ComplexEventChunk<StreamEvent> complexEventChunk) {
+        long currentTime = this.siddhiAppContext.getTimestampGenerator().currentTime();
+        if (currentTime - state.lastArrivalTime < idleAdvanceInterval) {
+            //Events have arrived since the check was scheduled, the next check is scheduled after the chunk.
+            return;
+        }
+        if (state.frontierTime == -1L) {
+            //No event has moved the frontier yet, hence it starts advancing from now on.
+            state.frontierTime = currentTime;
+        } else if (currentTime > state.frontierTime) {
+            state.greatestTimestamp = state.greatestTimestamp + (currentTime - state.frontierTime);
+            state.frontierTime = currentTime;
+        }
+        state.eventBuffer.transferTo(state.expiredEventBuffer);
+        long lastSentTimestamp = state.expiredEventBuffer.drain(state.greatestTimestamp - state.k,
+                complexEventChunk);
+        if (lastSentTimestamp != ReorderBuffer.NOTHING_DRAINED) {
+            state.lastSentTimeStamp = lastSentTimestamp;
+        }
+        //Keep advancing while the input stays idle, the checks are scheduled from the last arrival.
+        state.lastArrivalTime = currentTime;
+    }
+
+    /**
+     * Report the size of the buffers to the memory governor, and release the oldest events if the governor has
+     * asked for it. Released events are emitted after the events released in order, or dropped on eviction.
+     */
+    private void governMemory(KSlackState state, ComplexEventChunk<StreamEvent> complexEventChunk) {
+        memoryGovernor.update(state.bufferUsage,
+                (state.eventBuffer.size() + state.expiredEventBuffer.size()) * eventSize);
+        long bytesToRelease = state.bufferUsage.takeBytesToRelease();
+        if (bytesToRelease > 0) {
+            state.eventBuffer.transferTo(state.expiredEventBuffer);
+            ComplexEventChunk<StreamEvent> releasedEventChunk = evictOnOverflow ?
+                    new ComplexEventChunk<StreamEvent>(true) : complexEventChunk;
+            long lastSentTimestamp = state.expiredEventBuffer.drainOldest(
+                    (int) Math.min(Integer.MAX_VALUE, (bytesToRelease + eventSize - 1) / eventSize),
+                    releasedEventChunk);
+            if (lastSentTimestamp != ReorderBuffer.NOTHING_DRAINED) {
+                state.lastSentTimeStamp = lastSentTimestamp;
+            }
+            memoryGovernor.update(state.bufferUsage, state.expiredEventBuffer.size() * eventSize);
+        }
     }
 
     @Override
@@ -404,44 +902,124 @@ public class KSlackExtension extends StreamProcessor<KSlackExtension.KSlackState
         return ProcessingMode.BATCH;
     }
 
+    private static class TimestampedEvent {
+        private final long timestamp;
+        private final StreamEvent event;
+
+        private TimestampedEvent(long timestamp, StreamEvent event) {
+            this.timestamp = timestamp;
+            this.event = event;
+        }
+
+        private long getTimestamp() {
+            return timestamp;
+        }
+
+        private StreamEvent getEvent() {
+            return event;
+        }
+    }
+
     class KSlackState extends State {
-        private TreeMap<Long, ArrayList<StreamEvent>> eventTreeMap;
-        private TreeMap<Long, ArrayList<StreamEvent>> expiredEventTreeMap;
+        private ReorderBuffer eventBuffer;
+        private ReorderBuffer expiredEventBuffer;
         private long lastScheduledTimestamp = -1;
         private long lastSentTimeStamp = -1L;
         private long greatestTimestamp = 0; //Used to track the greatest timestamp of tuples in the stream history.
         private long k = 0; //In the beginning the K is zero.
+        private long lastArrivalTime = -1L; //Processing time of the last arrival, used to detect an idle input.
+        private long frontierTime = -1L; //Processing time at which the greatest timestamp last moved.
+        private long nextIdleCheck = -1L;
+        private MemoryGovernor.BufferUsage bufferUsage;
+        private long nextEvictionCheck = -1L;
+        private boolean timeoutScheduled = false; //Whether the timeout is pending in the timing wheel.
+        //Released chunks waiting to be emitted.
+        private final OrderedEmitter emitter = new OrderedEmitter(emissionHandOff);
 
         public KSlackState() {
-            this.eventTreeMap = new TreeMap<>();
-            this.expiredEventTreeMap = new TreeMap<>();
+            this.eventBuffer = bufferEngine.createBuffer();
+            this.expiredEventBuffer = bufferEngine.createBuffer();
+            if (memoryGovernor != null) {
+                this.bufferUsage = memoryGovernor.register(queryName);
+            }
+            if (frontierTable != null && SiddhiAppContext.getPartitionFlowId() != null) {
+                long[] frontier = frontierTable.remove(SiddhiAppContext.getPartitionFlowId());
+                if (frontier != null) {
+                    this.k = frontier[0];
+                    this.greatestTimestamp = frontier[1];
+                    this.lastSentTimeStamp = frontier[2];
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return eventBuffer.isEmpty() && expiredEventBuffer.isEmpty();
         }
 
+        /**
+         * The state of a partition key can be destroyed once its buffers are empty and no events have arrived for
+         * the idle timeout. A state created by a timer of a destroyed state has no arrivals, hence it is destroyed
+         * right away.
+         */
         @Override
         public boolean canDestroy() {
-            return false;
+            String partitionKey = SiddhiAppContext.getPartitionFlowId();
+            if (stateIdleTimeout == -1L || partitionKey == null || !isEmpty()) {
+                return false;
+            }
+            if (lastArrivalTime != -1L && siddhiAppContext.getTimestampGenerator().currentTime() - lastArrivalTime <
+                    stateIdleTimeout) {
+                return false;
+            }
+            if (frontierTable != null) {
+                frontierTable.put(partitionKey, new long[]{k, greatestTimestamp, lastSentTimeStamp});
+            }
+            if (memoryGovernor != null) {
+                memoryGovernor.unregister(bufferUsage);
+            }
+            return true;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
-            state.put("eventTreeMap", eventTreeMap);
-            state.put("expiredEventTreeMap", expiredEventTreeMap);
+            state.put("eventBuffer", eventBuffer);
+            state.put("expiredEventBuffer", expiredEventBuffer);
             state.put("lastScheduledTimestamp", lastScheduledTimestamp);
             state.put("lastSentTimeStamp", lastSentTimeStamp);
             state.put("greatestTimestamp", greatestTimestamp);
             state.put("k", k);
+            state.put("lastArrivalTime", lastArrivalTime);
+            state.put("frontierTime", frontierTime);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
-            this.eventTreeMap = (TreeMap<Long, ArrayList<StreamEvent>>) state.get("eventTreeMap");
-            this.expiredEventTreeMap = (TreeMap<Long, ArrayList<StreamEvent>>) state.get("expiredEventTreeMap");
+            this.eventBuffer = restoreBuffer(state, "eventBuffer", "eventTreeMap");
+            this.expiredEventBuffer = restoreBuffer(state, "expiredEventBuffer", "expiredEventTreeMap");
             this.lastScheduledTimestamp = (long) state.get("lastScheduledTimestamp");
             this.lastSentTimeStamp = (long) state.get("lastSentTimeStamp");
             this.greatestTimestamp = (long) state.get("greatestTimestamp");
             this.k = (long) state.get("k");
+            if (state.containsKey("lastArrivalTime")) {
+                this.lastArrivalTime = (long) state.get("lastArrivalTime");
+                this.frontierTime = (long) state.get("frontierTime");
+            }
+            //The idle and eviction checks are rescheduled on the next chunk.
+            this.nextIdleCheck = -1L;
+            this.nextEvictionCheck = -1L;
+            //The timeout is scheduled in the timing wheel again on the next event.
+            this.timeoutScheduled = false;
+        }
+
+        private ReorderBuffer restoreBuffer(Map<String, Object> state, String key, String legacyKey) {
+            Object buffer = state.get(key);
+            if (buffer != null) {
+                return (ReorderBuffer) buffer;
+            }
+            //Snapshots taken before the buffer engines were introduced hold the events in a tree map.
+            return new TreeMapReorderBuffer((TreeMap<Long, ArrayList<StreamEvent>>) state.get(legacyKey));
         }
     }
 }
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.event.stream.populater.ComplexEventPopulater;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.SchedulingProcessor;
+import io.siddhi.core.query.processor.stream.StreamProcessor;
+import io.siddhi.core.util.Scheduler;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The following code conducts reordering of the union of several out-of-order event streams.
+ * A high-water mark is tracked for each source, and the buffered events are released by a min-heap merge once
+ * all the active sources have passed their timestamp, so that a slow source does not widen the window of the others.
+ */
+@Extension(
+        name = "merge",
+        namespace = "reorder",
+        description = "Stream processor performs reordering of events merged from multiple sources, by tracking " +
+                "the greatest timestamp (high-water mark) seen from each source. Buffered events are released " +
+                "in timestamp order once every active source has sent an event with a timestamp greater than or " +
+                "equal to theirs. A source that has not sent events for the given idle timeout is not waited on " +
+                "until it sends an event again. Events arriving older than the released events are emitted " +
+                "right away.",
+        parameters = {
+                @Parameter(name = "timestamp",
+                        description = "The event timestamp on which the events should be ordered.",
+                        type = {DataType.LONG},
+                        dynamic = true),
+                @Parameter(name = "source.id",
+                        description = "The attribute identifying the source of the event.",
+                        type = {DataType.STRING, DataType.INT, DataType.LONG},
+                        dynamic = true),
+                @Parameter(name = "idle.timeout",
+                        description = "Time in milliseconds after which a source that has not sent any events " +
+                                "is considered idle and no longer holds back the release of the buffered events.",
+                        defaultValue = "`-1` (sources never become idle)",
+                        type = {DataType.INT, DataType.LONG},
+                        optional = true)
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"timestamp", "source.id"}),
+                @ParameterOverload(parameterNames = {"timestamp", "source.id", "idle.timeout"})
+        },
+        examples = @Example(
+                syntax = "define stream SensorStream (eventTime long, gateway string, reading double);\n\n" +
+                        "@info(name = 'query1')\n" +
+                        "from SensorStream#reorder:merge(eventTime, gateway, 5000L)\n" +
+                        "select eventTime, gateway, reading\n" +
+                        "insert into OrderedSensorStream;",
+                description = "The query merges the events received from all the gateways in the order of " +
+                        "'eventTime', releasing an event once every gateway has sent a later event, while not " +
+                        "waiting for gateways that have been silent for `5000` milliseconds.")
+)
+public class MergeReorderExtension extends StreamProcessor<MergeReorderExtension.MergeReorderState>
+        implements SchedulingProcessor {
+    private static final Comparator<BufferedEvent> EVENT_ORDER = (event1, event2) -> {
+        int compare = Long.compare(event1.timestamp, event2.timestamp);
+        if (compare == 0) {
+            compare = Long.compare(event1.sequence, event2.sequence);
+        }
+        return compare;
+    };
+    private ExpressionExecutor timestampExecutor;
+    private ExpressionExecutor sourceIdExecutor;
+    private long idleTimeout = -1L;
+    private Scheduler scheduler;
+    private SiddhiAppContext siddhiAppContext;
+
+    @Override
+    public void start() {
+        //Do nothing
+    }
+
+    @Override
+    public void stop() {
+        //Do nothing
+    }
+
+    @Override
+    protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
+                           StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater,
+                           MergeReorderState state) {
+        ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(true);
+        synchronized (state) {
+            long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+            boolean timerEvent = false;
+            while (streamEventChunk.hasNext()) {
+                StreamEvent event = streamEventChunk.next();
+                if (event.getType() == ComplexEvent.Type.TIMER) {
+                    timerEvent = true;
+                    continue;
+                }
+                streamEventChunk.remove();
+                long timestamp = (Long) timestampExecutor.execute(event);
+                Object sourceId = sourceIdExecutor.execute(event);
+
+                SourceWatermark source = state.sources.get(sourceId);
+                if (source == null) {
+                    source = new SourceWatermark();
+                    state.sources.put(sourceId, source);
+                }
+                if (timestamp > source.highWaterMark) {
+                    source.highWaterMark = timestamp;
+                }
+                source.lastArrivalTime = currentTime;
+                source.bufferedEvents++;
+                state.eventHeap.add(new BufferedEvent(timestamp, state.sequence++, sourceId, event));
+            }
+
+            long watermark = calculateWatermark(state, currentTime);
+            while (!state.eventHeap.isEmpty() && state.eventHeap.peek().timestamp <= watermark) {
+                BufferedEvent bufferedEvent = state.eventHeap.poll();
+                SourceWatermark source = state.sources.get(bufferedEvent.sourceId);
+                if (source != null) {
+                    source.bufferedEvents--;
+                }
+                complexEventChunk.add(bufferedEvent.event);
+            }
+
+            if (idleTimeout != -1L) {
+                removeIdleSources(state, currentTime);
+                if (timerEvent) {
+                    state.nextIdleCheck = -1L;
+                }
+                scheduleIdleCheck(state, currentTime);
+            }
+        }
+        if (nextProcessor != null) {
+            nextProcessor.process(complexEventChunk);
+        }
+    }
+
+    /**
+     * The events up to the smallest high-water mark of the active sources can be released, and all the buffered
+     * events can be released if every source is idle.
+     */
+    private long calculateWatermark(MergeReorderState state, long currentTime) {
+        long watermark = Long.MAX_VALUE;
+        for (SourceWatermark source : state.sources.values()) {
+            if (idleTimeout == -1L || currentTime - source.lastArrivalTime < idleTimeout) {
+                watermark = Math.min(watermark, source.highWaterMark);
+            }
+        }
+        return watermark;
+    }
+
+    /**
+     * Drop the sources that are idle and hold no buffered events, so that a stream with changing source ids does
+     * not accumulate them. Idle sources do not hold back the watermark, hence dropping them does not change it.
+     */
+    private void removeIdleSources(MergeReorderState state, long currentTime) {
+        state.sources.values().removeIf(source -> source.bufferedEvents <= 0 &&
+                currentTime - source.lastArrivalTime >= idleTimeout);
+    }
+
+    private void scheduleIdleCheck(MergeReorderState state, long currentTime) {
+        if (!state.eventHeap.isEmpty() && state.nextIdleCheck == -1L) {
+            state.nextIdleCheck = nextIdleTime(state, currentTime);
+            scheduler.notifyAt(state.nextIdleCheck);
+        }
+    }
+
+    private long nextIdleTime(MergeReorderState state, long currentTime) {
+        long nextIdleTime = currentTime + idleTimeout;
+        for (SourceWatermark source : state.sources.values()) {
+            long idleTime = source.lastArrivalTime + idleTimeout;
+            if (idleTime > currentTime && idleTime < nextIdleTime) {
+                nextIdleTime = idleTime;
+            }
+        }
+        return nextIdleTime;
+    }
+
+    @Override
+    protected StateFactory<MergeReorderState> init(MetaStreamEvent metaStreamEvent,
+                                                   AbstractDefinition abstractDefinition,
+                                                   ExpressionExecutor[] expressionExecutors,
+                                                   ConfigReader configReader,
+                                                   StreamEventClonerHolder streamEventClonerHolder,
+                                                   boolean outputExpectsExpiredEvents, boolean findToBeExecuted,
+                                                   SiddhiQueryContext siddhiQueryContext) {
+        this.siddhiAppContext = siddhiQueryContext.getSiddhiAppContext();
+        if (attributeExpressionLength < 2 || attributeExpressionLength > 3) {
+            throw new SiddhiAppCreationException("Two or three input parameters are expected for reorder:merge(), " +
+                    "the timestamp field (long), the source id field, and optionally the idle timeout (long). " +
+                    "But found " + attributeExpressionLength + " attributes.");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() == Attribute.Type.LONG) {
+            timestampExecutor = attributeExpressionExecutors[0];
+        } else {
+            throw new SiddhiAppCreationException("Invalid parameter type found for the first argument of " +
+                    "reorder:merge() function. Required LONG, but found " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+        switch (attributeExpressionExecutors[1].getReturnType()) {
+            case STRING:
+            case INT:
+            case LONG:
+                sourceIdExecutor = attributeExpressionExecutors[1];
+                break;
+            default:
+                throw new SiddhiAppCreationException("Invalid parameter type found for the second argument of " +
+                        "reorder:merge() function. Required STRING, INT, or LONG, but found " +
+                        attributeExpressionExecutors[1].getReturnType());
+        }
+        if (attributeExpressionLength == 3) {
+            if (!(attributeExpressionExecutors[2] instanceof ConstantExpressionExecutor)) {
+                throw new SiddhiAppCreationException("Idle timeout of reorder:merge() must be a constant.");
+            }
+            Object timeout = ((ConstantExpressionExecutor) attributeExpressionExecutors[2]).getValue();
+            if (attributeExpressionExecutors[2].getReturnType() == Attribute.Type.LONG) {
+                idleTimeout = (Long) timeout;
+            } else if (attributeExpressionExecutors[2].getReturnType() == Attribute.Type.INT) {
+                idleTimeout = (Integer) timeout;
+            } else {
+                throw new SiddhiAppCreationException("Invalid parameter type found for the third argument of " +
+                        "reorder:merge() function. Required INT or LONG, but found " +
+                        attributeExpressionExecutors[2].getReturnType());
+            }
+            if (idleTimeout <= 0 && idleTimeout != -1L) {
+                throw new SiddhiAppCreationException("Idle timeout of reorder:merge() should be positive, " +
+                        "but found " + idleTimeout);
+            }
+        }
+        return MergeReorderState::new;
+    }
+
+    @Override
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    @Override
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public List<Attribute> getReturnAttributes() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public ProcessingMode getProcessingMode() {
+        return ProcessingMode.BATCH;
+    }
+
+    /**
+     * Buffered event along with the timestamp it is ordered on.
+     */
+    private static class BufferedEvent implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final long timestamp;
+        private final long sequence;
+        private final Object sourceId;
+        private final StreamEvent event;
+
+        private BufferedEvent(long timestamp, long sequence, Object sourceId, StreamEvent event) {
+            this.timestamp = timestamp;
+            this.sequence = sequence;
+            this.sourceId = sourceId;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Progress of a single source.
+     */
+    private static class SourceWatermark implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private long highWaterMark = Long.MIN_VALUE;
+        private long lastArrivalTime;
+        private int bufferedEvents; //Number of events of the source in the heap.
+    }
+
+    class MergeReorderState extends State {
+        private PriorityQueue<BufferedEvent> eventHeap = new PriorityQueue<>(EVENT_ORDER);
+        private HashMap<Object, SourceWatermark> sources = new HashMap<>();
+        private long sequence = 0;
+        private long nextIdleCheck = -1L;
+
+        @Override
+        public boolean canDestroy() {
+            return false;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("bufferedEvents", new ArrayList<>(eventHeap));
+            state.put("sources", sources);
+            state.put("sequence", sequence);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            eventHeap = new PriorityQueue<>(EVENT_ORDER);
+            eventHeap.addAll((List<BufferedEvent>) state.get("bufferedEvents"));
+            sources = (HashMap<Object, SourceWatermark>) state.get("sources");
+            sequence = (long) state.get("sequence");
+            //Snapshots taken before the sources were pruned do not count the buffered events of each source.
+            for (SourceWatermark source : sources.values()) {
+                source.bufferedEvents = 0;
+            }
+            for (BufferedEvent bufferedEvent : eventHeap) {
+                SourceWatermark source = sources.get(bufferedEvent.sourceId);
+                if (source != null) {
+                    source.bufferedEvents++;
+                }
+            }
+            nextIdleCheck = -1L;
+            if (idleTimeout != -1L) {
+                //The restored events are flushed by the idle timeout even if no other event arrives.
+                scheduleIdleCheck(this, siddhiAppContext.getTimestampGenerator().currentTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.SystemParameter;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.event.stream.populater.ComplexEventPopulater;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.stream.StreamProcessor;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.extension.execution.reorder.buffer.BufferEngine;
+import io.siddhi.extension.execution.reorder.buffer.ReorderBuffer;
+import io.siddhi.extension.execution.reorder.utils.OrderedEmitter;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The following code conducts K-Slack reordering of an out-of-order event stream over several shards.
+ * The events are hashed by a key into shards, each having its own K-Slack buffers, and the shards of a chunk are
+ * processed in parallel on the worker pool of the Siddhi app. The keys hashed into a shard share its K-Slack window.
+ * The released events are emitted per shard, or merged across the shards up to the watermark all of them have
+ * passed.
+ */
+@Extension(
+        name = "shardedkslack",
+        namespace = "reorder",
+        description = "Stream processor performs reordering of out-of-order events using the K-Slack algorithm " +
+                "over multiple shards, so that the reordering of a high rate stream is spread over multiple " +
+                "cores. The events are hashed into the shards by the given key, and each shard keeps its own " +
+                "K-Slack window, which is shared by all the keys hashed into the shard, hence the late events of " +
+                "a key widen the window of the other keys of its shard. The events of a chunk falling into " +
+                "different shards are buffered in parallel, hence the throughput scales with the cores when the " +
+                "events arrive in chunks. With the `key` output order the events of each shard are emitted in the " +
+                "order its window releases them, as soon as it releases them. With the `global` output order " +
+                "the events released by the shards are merged in timestamp order, and are emitted once every " +
+                "shard that has received events has released up to them.",
+        parameters = {
+                @Parameter(name = "timestamp",
+                        description = "The event timestamp on which the events should be ordered.",
+                        type = {DataType.LONG},
+                        dynamic = true),
+                @Parameter(name = "shard.key",
+                        description = "The attribute the events are hashed into the shards by. Events having the " +
+                                "same key are kept in the same shard.",
+                        type = {DataType.STRING, DataType.INT, DataType.LONG, DataType.BOOL, DataType.DOUBLE,
+                                DataType.FLOAT},
+                        dynamic = true),
+                @Parameter(name = "shard.count",
+                        description = "The number of shards.",
+                        defaultValue = "The number of processors available",
+                        type = {DataType.INT},
+                        optional = true),
+                @Parameter(name = "output.order",
+                        description = "Whether the events are emitted in the order of their shard as soon as it " +
+                                "releases them (`key`), or merged in `global` order.",
+                        defaultValue = "key",
+                        type = {DataType.STRING},
+                        optional = true)
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"timestamp", "shard.key"}),
+                @ParameterOverload(parameterNames = {"timestamp", "shard.key", "shard.count"}),
+                @ParameterOverload(parameterNames = {"timestamp", "shard.key", "shard.count", "output.order"})
+        },
+        systemParameter = {
+                @SystemParameter(name = "buffer.engine",
+                        description = "The data structure used to buffer the out-of-order events of a shard, as " +
+                                "described for `reorder:kslack()`.",
+                        defaultValue = "treemap",
+                        possibleParameters = {"treemap", "patience", "sortedarray", "skiplist", "calendar",
+                                "timingwheel"}),
+                @SystemParameter(name = "emission.handoff",
+                        description = "Whether a thread finding another thread emitting the released events of " +
+                                "the same state leaves its events to that thread and returns. This keeps the " +
+                                "threads adding events from waiting on a slow downstream, but the events sent " +
+                                "may not have reached the downstream queries when `InputHandler.send()` " +
+                                "returns. By default the thread waits until its events are emitted.",
+                        defaultValue = "false",
+                        possibleParameters = {"true", "false"})
+        },
+        examples = @Example(
+                syntax = "define stream StockStream (eventTime long, symbol string, volume long);\n\n" +
+                        "@info(name = 'query1')\n" +
+                        "from StockStream#reorder:shardedkslack(eventTime, symbol, 8, 'global')\n" +
+                        "select eventTime, symbol, volume\n" +
+                        "insert into OutputStream;",
+                description = "The query hashes the events into `8` shards by 'symbol', reorders each shard based " +
+                        "on the 'eventTime' attribute value, and merges the released events of the shards in " +
+                        "the order of 'eventTime'.")
+)
+public class ShardedKSlackExtension extends StreamProcessor<ShardedKSlackExtension.ShardedKSlackState> {
+    private static final Comparator<Shard> HEAD_ORDER = (shard1, shard2) -> {
+        int compare = Long.compare(shard1.expiredEventBuffer.firstTimestamp(),
+                shard2.expiredEventBuffer.firstTimestamp());
+        if (compare == 0) {
+            compare = Integer.compare(shard1.index, shard2.index);
+        }
+        return compare;
+    };
+    private ExpressionExecutor timestampExecutor;
+    private ExpressionExecutor shardKeyExecutor;
+    private int shardCount = Runtime.getRuntime().availableProcessors();
+    private boolean globalOrder = false;
+    private BufferEngine bufferEngine = BufferEngine.TREEMAP;
+    private boolean emissionHandOff = false;
+    private SiddhiAppContext siddhiAppContext;
+
+    @Override
+    public void start() {
+        //Do nothing
+    }
+
+    @Override
+    public void stop() {
+        //Do nothing
+    }
+
+    @Override
+    protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
+                           StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater,
+                           ShardedKSlackState state) {
+        //The expressions are evaluated by the calling thread, and the shards only buffer and release the events.
+        int eventCount = 0;
+        for (ComplexEvent event = streamEventChunk.getFirst(); event != null; event = event.getNext()) {
+            if (event.getType() != ComplexEvent.Type.TIMER) {
+                eventCount++;
+            }
+        }
+        if (eventCount > 0) {
+            StreamEvent[] events = new StreamEvent[eventCount];
+            long[] timestamps = new long[eventCount];
+            int index = 0;
+            while (streamEventChunk.hasNext()) {
+                StreamEvent event = streamEventChunk.next();
+                if (event.getType() == ComplexEvent.Type.TIMER) {
+                    continue;
+                }
+                streamEventChunk.remove();
+                events[index] = event;
+                timestamps[index++] = (Long) timestampExecutor.execute(event);
+            }
+            //Counting sort of the events by shard, keeping the arrival order within each shard.
+            int[] shardIndexes = new int[eventCount];
+            int[] shardEnds = new int[shardCount + 1];
+            for (int i = 0; i < eventCount; i++) {
+                Object key = shardKeyExecutor.execute(events[i]);
+                int hash = key == null ? 0 : key.hashCode();
+                shardIndexes[i] = Math.floorMod(hash ^ (hash >>> 16), shardCount);
+                shardEnds[shardIndexes[i] + 1]++;
+            }
+            for (int shard = 0; shard < shardCount; shard++) {
+                shardEnds[shard + 1] += shardEnds[shard];
+            }
+            int[] positions = new int[eventCount];
+            int[] nextPositions = shardEnds.clone();
+            for (int i = 0; i < eventCount; i++) {
+                positions[nextPositions[shardIndexes[i]]++] = i;
+            }
+            addToShards(state, events, timestamps, positions, shardEnds);
+        }
+        if (globalOrder) {
+            synchronized (state) {
+                ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(true);
+                mergeShards(state, complexEventChunk);
+                state.emitter.enqueue(complexEventChunk);
+            }
+        }
+        if (nextProcessor != null) {
+            state.emitter.emit(nextProcessor);
+        }
+    }
+
+    /**
+     * Add the events to their shards, running each shard having events on the worker pool apart from the last
+     * one, which runs on the calling thread. Returns once all the shards are done.
+     */
+    private void addToShards(ShardedKSlackState state, StreamEvent[] events, long[] timestamps,
+                             int[] positions, int[] shardEnds) {
+        int lastShard = -1;
+        int activeShards = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (shardEnds[shard + 1] > shardEnds[shard]) {
+                lastShard = shard;
+                activeShards++;
+            }
+        }
+        CountDownLatch latch = new CountDownLatch(activeShards - 1);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        for (int shard = 0; shard < lastShard; shard++) {
+            int from = shardEnds[shard];
+            int to = shardEnds[shard + 1];
+            if (from == to) {
+                continue;
+            }
+            Shard target = state.shards[shard];
+            Runnable task = () -> {
+                try {
+                    addToShard(state, target, events, timestamps, positions, from, to);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    latch.countDown();
+                }
+            };
+            try {
+                siddhiAppContext.getExecutorService().execute(task);
+            } catch (RejectedExecutionException e) {
+                //The app is shutting down, hence the shard runs on the calling thread.
+                task.run();
+            }
+        }
+        addToShard(state, state.shards[lastShard], events, timestamps, positions, shardEnds[lastShard],
+                shardEnds[lastShard + 1]);
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Buffer the events of a shard in arrival order, releasing the events falling behind its K-Slack window.
+     * With the key output order the released events are queued for emission right away, and otherwise they stay
+     * in the buffer until the shards are merged.
+     */
+    private void addToShard(ShardedKSlackState state, Shard shard, StreamEvent[] events,
+                            long[] timestamps, int[] positions, int from, int to) {
+        ComplexEventChunk<StreamEvent> releasedEventChunk = new ComplexEventChunk<StreamEvent>(true);
+        shard.lock.lock();
+        try {
+            for (int i = from; i < to; i++) {
+                long timestamp = timestamps[positions[i]];
+                shard.eventBuffer.add(timestamp, events[positions[i]]);
+                if (timestamp > shard.greatestTimestamp) {
+                    shard.greatestTimestamp = timestamp;
+                    long timeDifference = shard.greatestTimestamp - shard.eventBuffer.firstTimestamp();
+                    if (timeDifference > shard.k) {
+                        shard.k = timeDifference;
+                    }
+                    shard.eventBuffer.transferTo(shard.expiredEventBuffer);
+                    if (!globalOrder) {
+                        shard.expiredEventBuffer.drain(shard.greatestTimestamp - shard.k, releasedEventChunk);
+                    }
+                }
+            }
+            if (!globalOrder) {
+                state.emitter.enqueue(releasedEventChunk);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Merge the events the shards have released in timestamp order, up to the watermark, which is the smallest
+     * K-Slack frontier among the shards that have received events. The shards are kept in a priority queue by the
+     * head timestamp of their released events, and the first shard is drained up to the head of the next one, hence
+     * each run of a shard costs a single queue update. Should be called holding the lock of the state.
+     */
+    private void mergeShards(ShardedKSlackState state, ComplexEventChunk<StreamEvent> complexEventChunk) {
+        for (Shard shard : state.shards) {
+            shard.lock.lock();
+        }
+        try {
+            long watermark = Long.MAX_VALUE;
+            for (Shard shard : state.shards) {
+                if (shard.greatestTimestamp != Long.MIN_VALUE) {
+                    watermark = Math.min(watermark, shard.greatestTimestamp - shard.k);
+                }
+            }
+            PriorityQueue<Shard> shardHeads = new PriorityQueue<>(state.shards.length, HEAD_ORDER);
+            for (Shard shard : state.shards) {
+                if (!shard.expiredEventBuffer.isEmpty() && shard.expiredEventBuffer.firstTimestamp() <= watermark) {
+                    shardHeads.add(shard);
+                }
+            }
+            while (!shardHeads.isEmpty()) {
+                Shard firstShard = shardHeads.poll();
+                //Events having the same timestamp are taken from the shard of the smaller index first.
+                long limit = shardHeads.isEmpty() ? watermark :
+                        Math.min(watermark, shardHeads.peek().expiredEventBuffer.firstTimestamp());
+                firstShard.expiredEventBuffer.drain(limit, complexEventChunk);
+                if (!firstShard.expiredEventBuffer.isEmpty() &&
+                        firstShard.expiredEventBuffer.firstTimestamp() <= watermark) {
+                    shardHeads.add(firstShard);
+                }
+            }
+        } finally {
+            for (Shard shard : state.shards) {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    protected StateFactory<ShardedKSlackState> init(MetaStreamEvent metaStreamEvent,
+                                                    AbstractDefinition abstractDefinition,
+                                                    ExpressionExecutor[] expressionExecutors,
+                                                    ConfigReader configReader,
+                                                    StreamEventClonerHolder streamEventClonerHolder,
+                                                    boolean outputExpectsExpiredEvents, boolean findToBeExecuted,
+                                                    SiddhiQueryContext siddhiQueryContext) {
+        this.siddhiAppContext = siddhiQueryContext.getSiddhiAppContext();
+        this.bufferEngine = BufferEngine.fromName(configReader.readConfig("buffer.engine", "treemap"));
+        this.emissionHandOff = Boolean.parseBoolean(configReader.readConfig("emission.handoff", "false").trim());
+        if (attributeExpressionLength < 2 || attributeExpressionLength > 4) {
+            throw new SiddhiAppCreationException("Two to four input parameters are expected for " +
+                    "reorder:shardedkslack(), the timestamp field (long), the shard key, the shard count (int) " +
+                    "and the output order (string). But found " + attributeExpressionLength + " attributes.");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() == Attribute.Type.LONG) {
+            timestampExecutor = attributeExpressionExecutors[0];
+        } else {
+            throw new SiddhiAppCreationException("Invalid parameter type found for the first argument of " +
+                    "reorder:shardedkslack() function. Required LONG, but found " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+        shardKeyExecutor = attributeExpressionExecutors[1];
+        if (attributeExpressionLength > 2) {
+            if (!(attributeExpressionExecutors[2] instanceof ConstantExpressionExecutor) ||
+                    attributeExpressionExecutors[2].getReturnType() != Attribute.Type.INT) {
+                throw new SiddhiAppCreationException("The shard count of reorder:shardedkslack() must be a " +
+                        "constant INT, but found " + attributeExpressionExecutors[2].getReturnType());
+            }
+            shardCount = (Integer) ((ConstantExpressionExecutor) attributeExpressionExecutors[2]).getValue();
+            if (shardCount <= 0) {
+                throw new SiddhiAppCreationException("The shard count of reorder:shardedkslack() should be " +
+                        "positive, but found " + shardCount);
+            }
+        }
+        if (attributeExpressionLength > 3) {
+            if (!(attributeExpressionExecutors[3] instanceof ConstantExpressionExecutor) ||
+                    attributeExpressionExecutors[3].getReturnType() != Attribute.Type.STRING) {
+                throw new SiddhiAppCreationException("The output order of reorder:shardedkslack() must be a " +
+                        "constant STRING, but found " + attributeExpressionExecutors[3].getReturnType());
+            }
+            String outputOrder = ((String) ((ConstantExpressionExecutor) attributeExpressionExecutors[3])
+                    .getValue()).trim();
+            if ("global".equalsIgnoreCase(outputOrder)) {
+                globalOrder = true;
+            } else if (!"key".equalsIgnoreCase(outputOrder)) {
+                throw new SiddhiAppCreationException("Invalid output order '" + outputOrder + "' found for " +
+                        "reorder:shardedkslack(). Supported orders are 'key' and 'global'.");
+            }
+        }
+        return ShardedKSlackState::new;
+    }
+
+    @Override
+    public List<Attribute> getReturnAttributes() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public ProcessingMode getProcessingMode() {
+        return ProcessingMode.BATCH;
+    }
+
+    /**
+     * K-Slack window of a shard, guarded by the lock of the shard.
+     */
+    private static class Shard {
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private ReorderBuffer eventBuffer; //Events arrived since the greatest timestamp last moved.
+        private ReorderBuffer expiredEventBuffer;
+        private long greatestTimestamp = Long.MIN_VALUE;
+        private long k = 0;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+    }
+
+    class ShardedKSlackState extends State {
+        private final Shard[] shards = new Shard[shardCount];
+        //Released chunks waiting to be emitted.
+        private final OrderedEmitter emitter = new OrderedEmitter(emissionHandOff);
+
+        public ShardedKSlackState() {
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard(i);
+                shards[i].eventBuffer = bufferEngine.createBuffer();
+                shards[i].expiredEventBuffer = bufferEngine.createBuffer();
+            }
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return false;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            ReorderBuffer[] eventBuffers = new ReorderBuffer[shardCount];
+            ReorderBuffer[] expiredEventBuffers = new ReorderBuffer[shardCount];
+            long[] greatestTimestamps = new long[shardCount];
+            long[] ks = new long[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                shards[i].lock.lock();
+                try {
+                    eventBuffers[i] = shards[i].eventBuffer;
+                    expiredEventBuffers[i] = shards[i].expiredEventBuffer;
+                    greatestTimestamps[i] = shards[i].greatestTimestamp;
+                    ks[i] = shards[i].k;
+                } finally {
+                    shards[i].lock.unlock();
+                }
+            }
+            Map<String, Object> state = new HashMap<>();
+            state.put("eventBuffers", eventBuffers);
+            state.put("expiredEventBuffers", expiredEventBuffers);
+            state.put("greatestTimestamps", greatestTimestamps);
+            state.put("ks", ks);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            ReorderBuffer[] eventBuffers = (ReorderBuffer[]) state.get("eventBuffers");
+            ReorderBuffer[] expiredEventBuffers = (ReorderBuffer[]) state.get("expiredEventBuffers");
+            long[] greatestTimestamps = (long[]) state.get("greatestTimestamps");
+            long[] ks = (long[]) state.get("ks");
+            if (eventBuffers.length != shardCount) {
+                throw new SiddhiAppRuntimeException("Unable to restore reorder:shardedkslack() having " +
+                        shardCount + " shards from a snapshot taken with " + eventBuffers.length + " shards.");
+            }
+            for (int i = 0; i < shardCount; i++) {
+                shards[i].lock.lock();
+                try {
+                    shards[i].eventBuffer = eventBuffers[i];
+                    shards[i].expiredEventBuffer = expiredEventBuffers[i];
+                    shards[i].greatestTimestamp = greatestTimestamps[i];
+                    shards[i].k = ks[i];
+                } finally {
+                    shards[i].lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.event.stream.populater.ComplexEventPopulater;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.stream.StreamProcessor;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The following code conducts reordering of an out-of-order event stream for several latency tiers at once.
+ * The events are buffered only once, and each tier releases them with its own fixed K-Slack window.
+ */
+@Extension(
+        name = "tieredkslack",
+        namespace = "reorder",
+        description = "Stream processor performs reordering of out-of-order events for multiple latency tiers " +
+                "using a single buffer. Each tier has its own fixed K-Slack window, and every event is emitted " +
+                "once for each tier when the greatest timestamp seen exceeds the event timestamp by the latency " +
+                "of the tier. The `tier` attribute of the output denotes the index of the tier the event is " +
+                "emitted for, in the order the latencies are given. An event arriving later than the window of a " +
+                "tier is emitted to that tier immediately.",
+        parameters = {
+                @Parameter(name = "timestamp",
+                        description = "The event timestamp on which the events should be ordered.",
+                        type = {DataType.LONG},
+                        dynamic = true),
+                @Parameter(name = "tier.latency",
+                        description = "The K-Slack window of a tier, given in the unit of the timestamp. " +
+                                "Multiple tiers can be given, and their latencies should be distinct.",
+                        type = {DataType.INT, DataType.LONG})
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"timestamp", "tier.latency", "..."})
+        },
+        returnAttributes = @ReturnAttribute(
+                name = "tier",
+                description = "The index of the latency tier the event is emitted for.",
+                type = {DataType.INT}),
+        examples = @Example(
+                syntax = "define stream StockStream (eventTime long, symbol string, volume long);\n\n" +
+                        "@info(name = 'query1')\n" +
+                        "from StockStream#reorder:tieredkslack(eventTime, 100L, 30000L)\n" +
+                        "select eventTime, symbol, volume, tier\n" +
+                        "insert into OrderedStockStream;\n\n" +
+                        "from OrderedStockStream[tier == 0]\n" +
+                        "select eventTime, symbol, volume\n" +
+                        "insert into DashboardStream;",
+                description = "The query reorders events based on the 'eventTime' attribute value, and emits " +
+                        "each event with 'tier' `0` once it is `100` milliseconds behind the latest event, and " +
+                        "again with 'tier' `1` once it is `30000` milliseconds behind the latest event. " +
+                        "The second query consumes the low latency tier.")
+)
+public class TieredKSlackExtension extends StreamProcessor<TieredKSlackExtension.TieredKSlackState> {
+    private ExpressionExecutor timestampExecutor;
+    private long[] tierLatencies;
+    private int slowestTier;
+
+    @Override
+    public void start() {
+        //Do nothing
+    }
+
+    @Override
+    public void stop() {
+        //Do nothing
+    }
+
+    @Override
+    protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
+                           StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater,
+                           TieredKSlackState state) {
+        ComplexEventChunk<StreamEvent> complexEventChunk = new ComplexEventChunk<StreamEvent>(true);
+        synchronized (state) {
+            while (streamEventChunk.hasNext()) {
+                StreamEvent event = streamEventChunk.next();
+                if (event.getType() == ComplexEvent.Type.TIMER) {
+                    continue;
+                }
+                streamEventChunk.remove();
+                long timestamp = (Long) timestampExecutor.execute(event);
+
+                //Tiers whose window has already passed the event receive it right away.
+                for (int tier = 0; tier < tierLatencies.length; tier++) {
+                    if (timestamp <= state.tierFrontiers[tier]) {
+                        complexEventChunk.add(copyForTier(event, tier, streamEventCloner, complexEventPopulater));
+                    }
+                }
+                if (timestamp > state.tierFrontiers[slowestTier]) {
+                    state.eventTreeMap.computeIfAbsent(timestamp, k -> new ArrayList<>()).add(event);
+                }
+
+                if (timestamp > state.greatestTimestamp) {
+                    state.greatestTimestamp = timestamp;
+                    for (int tier = 0; tier < tierLatencies.length; tier++) {
+                        long frontier = state.greatestTimestamp - tierLatencies[tier];
+                        if (frontier > state.tierFrontiers[tier]) {
+                            for (List<StreamEvent> eventList : state.eventTreeMap.subMap(
+                                    state.tierFrontiers[tier], false, frontier, true).values()) {
+                                for (StreamEvent bufferedEvent : eventList) {
+                                    complexEventChunk.add(copyForTier(bufferedEvent, tier, streamEventCloner,
+                                            complexEventPopulater));
+                                }
+                            }
+                            state.tierFrontiers[tier] = frontier;
+                        }
+                    }
+                    //Events released to the slowest tier are no longer needed.
+                    state.eventTreeMap.headMap(state.tierFrontiers[slowestTier], true).clear();
+                }
+            }
+        }
+        if (nextProcessor != null) {
+            nextProcessor.process(complexEventChunk);
+        }
+    }
+
+    private StreamEvent copyForTier(StreamEvent event, int tier, StreamEventCloner streamEventCloner,
+                                    ComplexEventPopulater complexEventPopulater) {
+        StreamEvent tierEvent = streamEventCloner.copyStreamEvent(event);
+        complexEventPopulater.populateComplexEvent(tierEvent, new Object[]{tier});
+        return tierEvent;
+    }
+
+    @Override
+    protected StateFactory<TieredKSlackState> init(MetaStreamEvent metaStreamEvent,
+                                                   AbstractDefinition abstractDefinition,
+                                                   ExpressionExecutor[] expressionExecutors,
+                                                   ConfigReader configReader,
+                                                   StreamEventClonerHolder streamEventClonerHolder,
+                                                   boolean outputExpectsExpiredEvents, boolean findToBeExecuted,
+                                                   SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionLength < 2) {
+            throw new SiddhiAppCreationException("At least two input parameters are expected for " +
+                    "reorder:tieredkslack(), the timestamp field (long) and one or more tier latencies (long). " +
+                    "But found " + attributeExpressionLength + " attributes.");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() == Attribute.Type.LONG) {
+            timestampExecutor = attributeExpressionExecutors[0];
+        } else {
+            throw new SiddhiAppCreationException("Invalid parameter type found for the first argument of " +
+                    "reorder:tieredkslack() function. Required LONG, but found " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+
+        tierLatencies = new long[attributeExpressionLength - 1];
+        for (int i = 1; i < attributeExpressionLength; i++) {
+            if (!(attributeExpressionExecutors[i] instanceof ConstantExpressionExecutor)) {
+                throw new SiddhiAppCreationException("Tier latencies of reorder:tieredkslack() must be " +
+                        "constants, but argument " + (i + 1) + " is not.");
+            }
+            Object latency = ((ConstantExpressionExecutor) attributeExpressionExecutors[i]).getValue();
+            if (attributeExpressionExecutors[i].getReturnType() == Attribute.Type.LONG) {
+                tierLatencies[i - 1] = (Long) latency;
+            } else if (attributeExpressionExecutors[i].getReturnType() == Attribute.Type.INT) {
+                tierLatencies[i - 1] = (Integer) latency;
+            } else {
+                throw new SiddhiAppCreationException("Invalid parameter type found for argument " + (i + 1) +
+                        " of reorder:tieredkslack() function. Required INT or LONG, but found " +
+                        attributeExpressionExecutors[i].getReturnType());
+            }
+            if (tierLatencies[i - 1] < 0) {
+                throw new SiddhiAppCreationException("Tier latencies of reorder:tieredkslack() cannot be " +
+                        "negative, but found " + tierLatencies[i - 1]);
+            }
+        }
+        slowestTier = 0;
+        for (int i = 0; i < tierLatencies.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (tierLatencies[i] == tierLatencies[j]) {
+                    throw new SiddhiAppCreationException("Tier latencies of reorder:tieredkslack() should be " +
+                            "distinct, but " + tierLatencies[i] + " is given more than once.");
+                }
+            }
+            if (tierLatencies[i] > tierLatencies[slowestTier]) {
+                slowestTier = i;
+            }
+        }
+        return TieredKSlackState::new;
+    }
+
+    @Override
+    public List<Attribute> getReturnAttributes() {
+        List<Attribute> attributes = new ArrayList<>();
+        attributes.add(new Attribute("tier", Attribute.Type.INT));
+        return attributes;
+    }
+
+    @Override
+    public ProcessingMode getProcessingMode() {
+        return ProcessingMode.BATCH;
+    }
+
+    class TieredKSlackState extends State {
+        //Events are kept until they are released to the tier having the largest latency.
+        private TreeMap<Long, List<StreamEvent>> eventTreeMap = new TreeMap<>();
+        private long[] tierFrontiers; //Largest timestamp released to each tier.
+        private long greatestTimestamp = Long.MIN_VALUE;
+
+        public TieredKSlackState() {
+            tierFrontiers = new long[tierLatencies.length];
+            Arrays.fill(tierFrontiers, Long.MIN_VALUE);
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return false;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("eventTreeMap", eventTreeMap);
+            state.put("tierFrontiers", tierFrontiers);
+            state.put("greatestTimestamp", greatestTimestamp);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            eventTreeMap = (TreeMap<Long, List<StreamEvent>>) state.get("eventTreeMap");
+            tierFrontiers = (long[]) state.get("tierFrontiers");
+            greatestTimestamp = (long) state.get("greatestTimestamp");
+        }
+    }
+}
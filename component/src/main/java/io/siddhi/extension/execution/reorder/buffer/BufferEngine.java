@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.exception.SiddhiAppCreationException;
+
+import java.util.Locale;
+
+/**
+ * The {@link ReorderBuffer} implementations that can be selected for the reorder processors.
+ */
+public enum BufferEngine {
+    TREEMAP {
+        @Override
+        public ReorderBuffer createBuffer() {
+            return new TreeMapReorderBuffer();
+        }
+    },
+    PATIENCE {
+        @Override
+        public ReorderBuffer createBuffer() {
+            return new PatienceReorderBuffer();
+        }
+    },
+    SORTEDARRAY {
+        @Override
+        public ReorderBuffer createBuffer() {
+            return new SortedArrayReorderBuffer();
+        }
+    },
+    SKIPLIST {
+        @Override
+        public ReorderBuffer createBuffer() {
+            return new SkipListReorderBuffer();
+        }
+    },
+    CALENDAR {
+        @Override
+        public ReorderBuffer createBuffer() {
+            return new CalendarQueueReorderBuffer();
+        }
+    },
+    TIMINGWHEEL {
+        @Override
+        public ReorderBuffer createBuffer() {
+            return new TimingWheelReorderBuffer();
+        }
+    };
+
+    public abstract ReorderBuffer createBuffer();
+
+    /**
+     * Find the engine by the name given in the configuration.
+     *
+     * @param name name of the engine, case insensitive
+     * @return the engine
+     */
+    public static BufferEngine fromName(String name) {
+        try {
+            return BufferEngine.valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new SiddhiAppCreationException("Invalid buffer engine '" + name + "' found for the reorder " +
+                    "extension. Supported engines are 'treemap', 'patience', 'sortedarray', 'skiplist', " +
+                    "'calendar' and 'timingwheel'.", e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+/**
+ * {@link ReorderBuffer} based on a calendar queue, which hashes the events into buckets by timestamp, each bucket
+ * covering a day of a fixed width, and the buckets cycling through a year. The smallest timestamp is found by
+ * walking the days from the last released one, hence adding and releasing events take constant time on average
+ * when the width matches the spacing of the timestamps. The number of buckets and the width are recomputed as the
+ * buffer grows and shrinks.
+ */
+public class CalendarQueueReorderBuffer implements ReorderBuffer {
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_BUCKET_COUNT = 16;
+    private SortedArrayReorderBuffer[] buckets = new SortedArrayReorderBuffer[INITIAL_BUCKET_COUNT];
+    private long width = 1;
+    private int size = 0;
+    //No buffered event has a timestamp less than this, the search for the smallest timestamp starts from here.
+    private long searchFrom = Long.MIN_VALUE;
+    private int firstBucket = -1; //Bucket holding the smallest timestamp, -1 when it has to be searched.
+
+    @Override
+    public void add(long timestamp, StreamEvent event) {
+        if (size == 0 || timestamp < searchFrom) {
+            searchFrom = timestamp;
+            firstBucket = -1;
+        } else if (firstBucket != -1 && timestamp < buckets[firstBucket].firstTimestamp()) {
+            firstBucket = -1;
+        }
+        int index = bucketIndex(timestamp);
+        SortedArrayReorderBuffer bucket = buckets[index];
+        if (bucket == null) {
+            bucket = new SortedArrayReorderBuffer();
+            buckets[index] = bucket;
+        }
+        bucket.add(timestamp, event);
+        size++;
+        if (size > 2 * buckets.length) {
+            resize(buckets.length * 2);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long firstTimestamp() {
+        return buckets[findFirstBucket()].firstTimestamp();
+    }
+
+    @Override
+    public long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        while (size > 0) {
+            SortedArrayReorderBuffer bucket = buckets[findFirstBucket()];
+            long timestamp = bucket.firstTimestamp();
+            if (timestamp > maxTimestamp) {
+                break;
+            }
+            chunk.add(poll(bucket, timestamp));
+            lastTimestamp = timestamp;
+        }
+        if (buckets.length > INITIAL_BUCKET_COUNT && size < buckets.length / 2) {
+            resize(buckets.length / 2);
+        }
+        return lastTimestamp;
+    }
+
+    @Override
+    public void transferTo(ReorderBuffer target) {
+        while (size > 0) {
+            SortedArrayReorderBuffer bucket = buckets[findFirstBucket()];
+            long timestamp = bucket.firstTimestamp();
+            target.add(timestamp, poll(bucket, timestamp));
+        }
+        if (buckets.length > INITIAL_BUCKET_COUNT) {
+            buckets = new SortedArrayReorderBuffer[INITIAL_BUCKET_COUNT];
+        }
+    }
+
+    private StreamEvent poll(SortedArrayReorderBuffer bucket, long timestamp) {
+        StreamEvent event = bucket.poll();
+        size--;
+        searchFrom = timestamp;
+        if (bucket.isEmpty() || bucket.firstTimestamp() != timestamp) {
+            firstBucket = -1;
+        }
+        return event;
+    }
+
+    /**
+     * Find the bucket holding the smallest timestamp, the buffer must not be empty. The days of a year are walked
+     * from the day of the lower bound, and the first bucket having a timestamp within its day holds the smallest
+     * timestamp. If there is no such bucket, the smallest timestamp is searched among all the buckets.
+     */
+    private int findFirstBucket() {
+        if (firstBucket != -1) {
+            return firstBucket;
+        }
+        long day = Math.floorDiv(searchFrom, width);
+        for (int i = 0; i < buckets.length; i++, day++) {
+            int index = (int) (day & (buckets.length - 1));
+            SortedArrayReorderBuffer bucket = buckets[index];
+            if (bucket != null && !bucket.isEmpty() && Math.floorDiv(bucket.firstTimestamp(), width) == day) {
+                firstBucket = index;
+                return index;
+            }
+        }
+        long firstTimestamp = Long.MAX_VALUE;
+        for (int index = 0; index < buckets.length; index++) {
+            SortedArrayReorderBuffer bucket = buckets[index];
+            if (bucket != null && !bucket.isEmpty() && bucket.firstTimestamp() <= firstTimestamp) {
+                firstTimestamp = bucket.firstTimestamp();
+                firstBucket = index;
+            }
+        }
+        searchFrom = firstTimestamp;
+        return firstBucket;
+    }
+
+    private int bucketIndex(long timestamp) {
+        return (int) (Math.floorDiv(timestamp, width) & (buckets.length - 1));
+    }
+
+    /**
+     * Rehash the events into the given number of buckets, with the width set to three times the average spacing
+     * of the buffered timestamps. Events having the same timestamp share a bucket, hence they keep their order.
+     */
+    private void resize(int bucketCount) {
+        long smallest = Long.MAX_VALUE;
+        long largest = Long.MIN_VALUE;
+        for (SortedArrayReorderBuffer bucket : buckets) {
+            if (bucket != null && !bucket.isEmpty()) {
+                smallest = Math.min(smallest, bucket.firstTimestamp());
+                largest = Math.max(largest, bucket.lastTimestamp());
+            }
+        }
+        SortedArrayReorderBuffer[] oldBuckets = buckets;
+        buckets = new SortedArrayReorderBuffer[bucketCount];
+        if (size > 0) {
+            width = Math.max(1L, (long) Math.ceil(3.0 * ((double) largest - smallest) / size));
+        }
+        firstBucket = -1;
+        for (SortedArrayReorderBuffer oldBucket : oldBuckets) {
+            if (oldBucket == null || oldBucket.isEmpty()) {
+                continue;
+            }
+            while (!oldBucket.isEmpty()) {
+                long timestamp = oldBucket.firstTimestamp();
+                int index = bucketIndex(timestamp);
+                SortedArrayReorderBuffer bucket = buckets[index];
+                if (bucket == null) {
+                    bucket = new SortedArrayReorderBuffer();
+                    buckets[index] = bucket;
+                }
+                bucket.add(timestamp, oldBucket.poll());
+            }
+        }
+    }
+}
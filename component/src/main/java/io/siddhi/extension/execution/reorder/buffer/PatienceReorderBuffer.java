@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * {@link ReorderBuffer} based on Patience sort, suited for nearly sorted streams.
+ * The events are kept in sorted runs backed by append-only arrays, and released by k-way merging the run heads.
+ * The runs are ordered by their last timestamp in descending order, hence an event is appended to the first run
+ * whose last timestamp is not greater than its own, and an in-order event is always appended to the first run.
+ */
+public class PatienceReorderBuffer implements ReorderBuffer {
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_RUN_CAPACITY = 16;
+    private static final Comparator<Run> HEAD_ORDER = (run1, run2) -> {
+        int compare = Long.compare(run1.headTimestamp(), run2.headTimestamp());
+        if (compare == 0) {
+            compare = Long.compare(run1.headSequence(), run2.headSequence());
+        }
+        return compare;
+    };
+    private ArrayList<Run> runs = new ArrayList<>();
+    private int size = 0;
+    private long sequence = 0; //Arrival order, used to release events having the same timestamp in arrival order.
+
+    @Override
+    public void add(long timestamp, StreamEvent event) {
+        int index = findRun(timestamp);
+        Run run;
+        if (index == runs.size()) {
+            run = new Run();
+            runs.add(run);
+        } else {
+            run = runs.get(index);
+        }
+        run.append(timestamp, sequence++, event);
+        size++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long firstTimestamp() {
+        long firstTimestamp = Long.MAX_VALUE;
+        for (Run run : runs) {
+            if (run.headTimestamp() < firstTimestamp) {
+                firstTimestamp = run.headTimestamp();
+            }
+        }
+        return firstTimestamp;
+    }
+
+    @Override
+    public long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        if (runs.size() == 1) {
+            Run run = runs.get(0);
+            while (!run.isEmpty() && run.headTimestamp() <= maxTimestamp) {
+                lastTimestamp = run.headTimestamp();
+                chunk.add(run.poll());
+                size--;
+            }
+        } else if (!runs.isEmpty()) {
+            PriorityQueue<Run> runHeads = new PriorityQueue<>(runs.size(), HEAD_ORDER);
+            for (Run run : runs) {
+                if (run.headTimestamp() <= maxTimestamp) {
+                    runHeads.add(run);
+                }
+            }
+            while (!runHeads.isEmpty()) {
+                Run run = runHeads.poll();
+                lastTimestamp = run.headTimestamp();
+                chunk.add(run.poll());
+                size--;
+                if (!run.isEmpty() && run.headTimestamp() <= maxTimestamp) {
+                    runHeads.add(run);
+                }
+            }
+        }
+        removeEmptyRuns();
+        return lastTimestamp;
+    }
+
+    @Override
+    public void transferTo(ReorderBuffer target) {
+        //The runs are merged into a single sorted run, which the target takes in as a whole.
+        if (runs.size() == 1) {
+            Run run = runs.get(0);
+            target.addSortedRun(run.timestamps, run.events, run.head, run.tail);
+        } else if (!runs.isEmpty()) {
+            long[] sortedTimestamps = new long[size];
+            StreamEvent[] sortedEvents = new StreamEvent[size];
+            int index = 0;
+            PriorityQueue<Run> runHeads = new PriorityQueue<>(runs.size(), HEAD_ORDER);
+            runHeads.addAll(runs);
+            while (!runHeads.isEmpty()) {
+                Run run = runHeads.poll();
+                sortedTimestamps[index] = run.headTimestamp();
+                sortedEvents[index++] = run.poll();
+                if (!run.isEmpty()) {
+                    runHeads.add(run);
+                }
+            }
+            target.addSortedRun(sortedTimestamps, sortedEvents, 0, size);
+        }
+        runs = new ArrayList<>();
+        size = 0;
+    }
+
+    @Override
+    public void addSortedRun(long[] timestamps, StreamEvent[] events, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return;
+        }
+        //The sorted run is kept whole, as a new run placed by its last timestamp, or appended to the first run when
+        //it starts at or after the tail of that run.
+        Run run;
+        if (!runs.isEmpty() && runs.get(0).tailTimestamp() <= timestamps[from]) {
+            run = runs.get(0);
+        } else {
+            run = new Run(length);
+            runs.add(findRun(timestamps[to - 1]), run);
+        }
+        run.appendAll(timestamps, events, from, length, sequence);
+        sequence += length;
+        size += length;
+    }
+
+    /**
+     * Binary search for the first run whose last timestamp is not greater than the given timestamp.
+     *
+     * @return index of the run, or the number of runs if a new run has to be started
+     */
+    private int findRun(long timestamp) {
+        int size = runs.size();
+        if (size == 0 || runs.get(0).tailTimestamp() <= timestamp) {
+            return 0;
+        }
+        int low = 1;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (runs.get(mid).tailTimestamp() <= timestamp) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private void removeEmptyRuns() {
+        Iterator<Run> runIterator = runs.iterator();
+        while (runIterator.hasNext()) {
+            if (runIterator.next().isEmpty()) {
+                runIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * A sorted run of events, events are appended to the tail and polled from the head.
+     */
+    private static class Run implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private long[] timestamps;
+        private long[] sequences;
+        private StreamEvent[] events;
+        private int head = 0;
+        private int tail = 0;
+
+        private Run() {
+            this(INITIAL_RUN_CAPACITY);
+        }
+
+        private Run(int capacity) {
+            timestamps = new long[capacity];
+            sequences = new long[capacity];
+            events = new StreamEvent[capacity];
+        }
+
+        private void append(long timestamp, long sequence, StreamEvent event) {
+            ensureCapacity(1);
+            timestamps[tail] = timestamp;
+            sequences[tail] = sequence;
+            events[tail] = event;
+            tail++;
+        }
+
+        private void appendAll(long[] runTimestamps, StreamEvent[] runEvents, int from, int length,
+                               long firstSequence) {
+            ensureCapacity(length);
+            System.arraycopy(runTimestamps, from, timestamps, tail, length);
+            System.arraycopy(runEvents, from, events, tail, length);
+            for (int i = 0; i < length; i++) {
+                sequences[tail + i] = firstSequence + i;
+            }
+            tail += length;
+        }
+
+        private void ensureCapacity(int count) {
+            if (tail + count <= events.length) {
+                return;
+            }
+            int length = tail - head;
+            if (head > 0 && length + count <= events.length / 2) {
+                System.arraycopy(timestamps, head, timestamps, 0, length);
+                System.arraycopy(sequences, head, sequences, 0, length);
+                System.arraycopy(events, head, events, 0, length);
+                Arrays.fill(events, length, tail, null);
+            } else {
+                int capacity = events.length * 2;
+                while (capacity < length + count) {
+                    capacity *= 2;
+                }
+                timestamps = Arrays.copyOfRange(timestamps, head, head + capacity);
+                sequences = Arrays.copyOfRange(sequences, head, head + capacity);
+                events = Arrays.copyOfRange(events, head, head + capacity);
+            }
+            head = 0;
+            tail = length;
+        }
+
+        private StreamEvent poll() {
+            StreamEvent event = events[head];
+            events[head] = null;
+            head++;
+            return event;
+        }
+
+        private boolean isEmpty() {
+            return head == tail;
+        }
+
+        private long headTimestamp() {
+            return timestamps[head];
+        }
+
+        private long headSequence() {
+            return sequences[head];
+        }
+
+        private long tailTimestamp() {
+            return timestamps[tail - 1];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+
+/**
+ * Buffer holding out-of-order events sorted by their timestamp until the reorder processor releases them.
+ * Events having the same timestamp are released in their arrival order.
+ */
+public interface ReorderBuffer extends Serializable {
+
+    /**
+     * Value returned by {@link #drain(long, ComplexEventChunk)} when no event has been released.
+     */
+    long NOTHING_DRAINED = Long.MIN_VALUE;
+
+    /**
+     * Add an event to the buffer.
+     *
+     * @param timestamp timestamp the event is ordered on
+     * @param event     the event
+     */
+    void add(long timestamp, StreamEvent event);
+
+    /**
+     * @return true if the buffer does not hold any event
+     */
+    boolean isEmpty();
+
+    /**
+     * @return the number of events held by the buffer
+     */
+    int size();
+
+    /**
+     * @return the smallest timestamp held by the buffer, the buffer must not be empty
+     */
+    long firstTimestamp();
+
+    /**
+     * Remove all the events having a timestamp less than or equal to the given timestamp and add them to the
+     * chunk in timestamp order.
+     *
+     * @param maxTimestamp largest timestamp to be released
+     * @param chunk        chunk the released events are added to
+     * @return timestamp of the last released event or {@link #NOTHING_DRAINED} if no event was released
+     */
+    long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk);
+
+    /**
+     * Move all the events of this buffer to the given buffer, leaving this buffer empty.
+     *
+     * @param target buffer the events are moved to
+     */
+    void transferTo(ReorderBuffer target);
+
+    /**
+     * Add a run of events sorted by timestamp to the buffer. Events of the run having the same timestamp must be in
+     * arrival order, and they are released after the buffered events having that timestamp.
+     *
+     * @param timestamps timestamps of the events in ascending order
+     * @param events     the events
+     * @param from       index of the first event of the run
+     * @param to         index after the last event of the run
+     */
+    default void addSortedRun(long[] timestamps, StreamEvent[] events, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(timestamps[i], events[i]);
+        }
+    }
+
+    /**
+     * Remove at least the given number of events having the smallest timestamps, or all the events if there are
+     * fewer, and add them to the chunk in timestamp order. Events having the same timestamp are removed together.
+     *
+     * @param count number of events to be released
+     * @param chunk chunk the released events are added to
+     * @return timestamp of the last released event or {@link #NOTHING_DRAINED} if no event was released
+     */
+    default long drainOldest(int count, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        int targetSize = Math.max(0, size() - count);
+        while (size() > targetSize) {
+            lastTimestamp = drain(firstTimestamp(), chunk);
+        }
+        return lastTimestamp;
+    }
+}
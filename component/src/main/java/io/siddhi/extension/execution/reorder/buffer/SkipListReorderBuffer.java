@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link ReorderBuffer} keeping the events in a skip list keyed by timestamp. Unlike a red-black tree, inserting a
+ * timestamp does not rebalance the structure, and the smallest timestamp is reached directly from the head of the
+ * list, which suits streams where most of the insertions and all of the removals are at the ends.
+ */
+public class SkipListReorderBuffer implements ReorderBuffer {
+    private static final long serialVersionUID = 1L;
+    private ConcurrentSkipListMap<Long, List<StreamEvent>> eventSkipList = new ConcurrentSkipListMap<>();
+    private int size = 0;
+
+    @Override
+    public void add(long timestamp, StreamEvent event) {
+        List<StreamEvent> eventList = eventSkipList.get(timestamp);
+        if (eventList == null) {
+            eventList = new ArrayList<>();
+            eventSkipList.put(timestamp, eventList);
+        }
+        eventList.add(event);
+        size++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return eventSkipList.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long firstTimestamp() {
+        return eventSkipList.firstKey();
+    }
+
+    @Override
+    public long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        while (!eventSkipList.isEmpty()) {
+            long timestamp = eventSkipList.firstKey();
+            if (timestamp > maxTimestamp) {
+                break;
+            }
+            List<StreamEvent> eventList = eventSkipList.pollFirstEntry().getValue();
+            for (int i = 0; i < eventList.size(); i++) {
+                chunk.add(eventList.get(i));
+            }
+            size -= eventList.size();
+            lastTimestamp = timestamp;
+        }
+        return lastTimestamp;
+    }
+
+    @Override
+    public void transferTo(ReorderBuffer target) {
+        if (target instanceof SkipListReorderBuffer) {
+            ConcurrentSkipListMap<Long, List<StreamEvent>> targetSkipList =
+                    ((SkipListReorderBuffer) target).eventSkipList;
+            for (Map.Entry<Long, List<StreamEvent>> entry : eventSkipList.entrySet()) {
+                List<StreamEvent> list = targetSkipList.get(entry.getKey());
+                if (list != null) {
+                    list.addAll(entry.getValue());
+                } else {
+                    targetSkipList.put(entry.getKey(), entry.getValue());
+                }
+            }
+            ((SkipListReorderBuffer) target).size += size;
+        } else {
+            for (Map.Entry<Long, List<StreamEvent>> entry : eventSkipList.entrySet()) {
+                for (StreamEvent event : entry.getValue()) {
+                    target.add(entry.getKey(), event);
+                }
+            }
+        }
+        eventSkipList = new ConcurrentSkipListMap<>();
+        size = 0;
+    }
+
+    @Override
+    public void addSortedRun(long[] timestamps, StreamEvent[] events, int from, int to) {
+        //The skip list is searched once for each distinct timestamp of the run rather than once for each event.
+        int start = from;
+        while (start < to) {
+            int end = start + 1;
+            while (end < to && timestamps[end] == timestamps[start]) {
+                end++;
+            }
+            List<StreamEvent> eventList = eventSkipList.get(timestamps[start]);
+            if (eventList == null) {
+                eventList = new ArrayList<>(end - start);
+                eventSkipList.put(timestamps[start], eventList);
+            }
+            for (int i = start; i < end; i++) {
+                eventList.add(events[i]);
+            }
+            start = end;
+        }
+        size += to - from;
+    }
+}
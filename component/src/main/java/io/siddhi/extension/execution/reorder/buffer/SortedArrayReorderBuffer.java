@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.util.Arrays;
+
+/**
+ * {@link ReorderBuffer} keeping the events in a primitive array of timestamps sorted in ascending order, along with
+ * an array of the events. The live entries are from head to tail, hence releasing events only moves the head, and
+ * an in-order event is appended to the tail after a single comparison. Adding and releasing events does not
+ * allocate, apart from growing the arrays.
+ */
+public class SortedArrayReorderBuffer implements ReorderBuffer {
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 16;
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private StreamEvent[] events = new StreamEvent[INITIAL_CAPACITY];
+    private int head = 0;
+    private int tail = 0;
+
+    @Override
+    public void add(long timestamp, StreamEvent event) {
+        ensureCapacity(1);
+        //Events having the same timestamp are kept in arrival order, hence the insertion point is after them.
+        int index = upperBound(timestamp);
+        System.arraycopy(timestamps, index, timestamps, index + 1, tail - index);
+        System.arraycopy(events, index, events, index + 1, tail - index);
+        timestamps[index] = timestamp;
+        events[index] = event;
+        tail++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public int size() {
+        return tail - head;
+    }
+
+    @Override
+    public long firstTimestamp() {
+        return timestamps[head];
+    }
+
+    @Override
+    public long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        while (head < tail && timestamps[head] <= maxTimestamp) {
+            lastTimestamp = timestamps[head];
+            chunk.add(events[head]);
+            events[head] = null;
+            head++;
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+        return lastTimestamp;
+    }
+
+    @Override
+    public void transferTo(ReorderBuffer target) {
+        target.addSortedRun(timestamps, events, head, tail);
+        Arrays.fill(events, head, tail, null);
+        head = 0;
+        tail = 0;
+    }
+
+    @Override
+    public void addSortedRun(long[] runTimestamps, StreamEvent[] runEvents, int from, int to) {
+        merge(runTimestamps, runEvents, from, to);
+    }
+
+    long lastTimestamp() {
+        return timestamps[tail - 1];
+    }
+
+    /**
+     * Remove the event having the smallest timestamp, the buffer must not be empty.
+     *
+     * @return the event
+     */
+    StreamEvent poll() {
+        StreamEvent event = events[head];
+        events[head] = null;
+        head++;
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+        return event;
+    }
+
+    /**
+     * Merge the given range of sorted events into this buffer in linear time. The events of this buffer come first
+     * among the events having the same timestamp, as they arrived earlier.
+     */
+    private void merge(long[] sourceTimestamps, StreamEvent[] sourceEvents, int from, int to) {
+        int sourceSize = to - from;
+        if (sourceSize == 0) {
+            return;
+        }
+        if (isEmpty() || timestamps[tail - 1] <= sourceTimestamps[from]) {
+            ensureCapacity(sourceSize);
+            System.arraycopy(sourceTimestamps, from, timestamps, tail, sourceSize);
+            System.arraycopy(sourceEvents, from, events, tail, sourceSize);
+            tail += sourceSize;
+            return;
+        }
+        int size = tail - head + sourceSize;
+        int capacity = events.length;
+        while (capacity < size) {
+            capacity *= 2;
+        }
+        long[] mergedTimestamps = new long[capacity];
+        StreamEvent[] mergedEvents = new StreamEvent[capacity];
+        int index = head;
+        int sourceIndex = from;
+        for (int i = 0; i < size; i++) {
+            if (sourceIndex == to || (index < tail && timestamps[index] <= sourceTimestamps[sourceIndex])) {
+                mergedTimestamps[i] = timestamps[index];
+                mergedEvents[i] = events[index++];
+            } else {
+                mergedTimestamps[i] = sourceTimestamps[sourceIndex];
+                mergedEvents[i] = sourceEvents[sourceIndex++];
+            }
+        }
+        timestamps = mergedTimestamps;
+        events = mergedEvents;
+        head = 0;
+        tail = size;
+    }
+
+    /**
+     * Make room for the given number of events after the tail, reclaiming the space before the head first.
+     */
+    private void ensureCapacity(int count) {
+        if (tail + count <= events.length) {
+            return;
+        }
+        int size = tail - head;
+        if (head > 0 && size + count <= events.length / 2) {
+            System.arraycopy(timestamps, head, timestamps, 0, size);
+            System.arraycopy(events, head, events, 0, size);
+            Arrays.fill(events, size, tail, null);
+        } else {
+            int capacity = events.length * 2;
+            while (capacity < size + count) {
+                capacity *= 2;
+            }
+            timestamps = Arrays.copyOfRange(timestamps, head, head + capacity);
+            events = Arrays.copyOfRange(events, head, head + capacity);
+        }
+        head = 0;
+        tail = size;
+    }
+
+    private int upperBound(long timestamp) {
+        if (head == tail || timestamps[tail - 1] <= timestamp) {
+            return tail;
+        }
+        int low = head;
+        int high = tail - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
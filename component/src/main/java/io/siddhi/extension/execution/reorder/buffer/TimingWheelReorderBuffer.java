@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * {@link ReorderBuffer} based on a hierarchical timing wheel over the timestamps. Each level has 64 slots, and an
+ * event is kept in the level of the highest bit in which its timestamp differs from the current timestamp, which
+ * is the smallest timestamp the wheel may hold. The smallest timestamp is found through the occupancy bits of the
+ * levels, and when the wheel turns to a slot of an upper level, its events are moved to the lower levels. Each
+ * event moves down at most once per level, hence adding and releasing events take constant time regardless of the
+ * number of buffered events. Events arriving with a timestamp less than the current one are kept aside in a sorted
+ * array, as they are released right away in the usual case.
+ */
+public class TimingWheelReorderBuffer implements ReorderBuffer {
+    private static final long serialVersionUID = 1L;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+    private static final int LEVEL_COUNT = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+    private final Slot[][] slots = new Slot[LEVEL_COUNT][SLOT_COUNT];
+    private final long[] occupiedSlots = new long[LEVEL_COUNT]; //Bits of the non-empty slots of each level.
+    private final SortedArrayReorderBuffer lateEvents = new SortedArrayReorderBuffer();
+    private long currentTimestamp;
+    private int size = 0;
+
+    @Override
+    public void add(long timestamp, StreamEvent event) {
+        if (size == 0) {
+            currentTimestamp = timestamp;
+        }
+        if (timestamp < currentTimestamp) {
+            lateEvents.add(timestamp, event);
+        } else {
+            place(timestamp, event);
+        }
+        size++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long firstTimestamp() {
+        if (!lateEvents.isEmpty()) {
+            return lateEvents.firstTimestamp();
+        }
+        turn();
+        return currentTimestamp;
+    }
+
+    @Override
+    public long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        if (!lateEvents.isEmpty()) {
+            int lateEventCount = lateEvents.size();
+            lastTimestamp = lateEvents.drain(maxTimestamp, chunk);
+            size -= lateEventCount - lateEvents.size();
+        }
+        //The late events are smaller than the events of the wheel.
+        while (size > lateEvents.size()) {
+            turn();
+            if (currentTimestamp > maxTimestamp) {
+                break;
+            }
+            int index = slotIndex(currentTimestamp, 0);
+            Slot slot = slots[0][index];
+            for (int i = 0; i < slot.size; i++) {
+                chunk.add(slot.events[i]);
+            }
+            size -= slot.size;
+            slot.clear();
+            occupiedSlots[0] &= ~(1L << index);
+            lastTimestamp = currentTimestamp;
+        }
+        return lastTimestamp;
+    }
+
+    @Override
+    public void transferTo(ReorderBuffer target) {
+        lateEvents.transferTo(target);
+        //Events having the same timestamp share a slot, hence they keep their order in any order of the slots.
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            for (long occupied = occupiedSlots[level]; occupied != 0; occupied &= occupied - 1) {
+                Slot slot = slots[level][Long.numberOfTrailingZeros(occupied)];
+                for (int i = 0; i < slot.size; i++) {
+                    target.add(slot.timestamps[i], slot.events[i]);
+                }
+                slot.clear();
+            }
+            occupiedSlots[level] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Turn the wheel to the smallest timestamp it holds, so that its events are in the level zero slot of the
+     * current timestamp. The wheel must not be empty.
+     */
+    private void turn() {
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            long occupied = occupiedSlots[level] & (-1L << slotIndex(currentTimestamp, level));
+            if (occupied == 0) {
+                continue;
+            }
+            int index = Long.numberOfTrailingZeros(occupied);
+            Slot slot = slots[level][index];
+            if (level == 0) {
+                currentTimestamp = (currentTimestamp & -(long) SLOT_COUNT) | index;
+                return;
+            }
+            long smallestTimestamp = slot.timestamps[0];
+            for (int i = 1; i < slot.size; i++) {
+                smallestTimestamp = Math.min(smallestTimestamp, slot.timestamps[i]);
+            }
+            currentTimestamp = smallestTimestamp;
+            //The events of the slot now differ from the current timestamp only in the lower levels.
+            occupiedSlots[level] &= ~(1L << index);
+            for (int i = 0; i < slot.size; i++) {
+                place(slot.timestamps[i], slot.events[i]);
+            }
+            slot.clear();
+            return;
+        }
+    }
+
+    private void place(long timestamp, StreamEvent event) {
+        long differingBits = timestamp ^ currentTimestamp;
+        int level = differingBits == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(differingBits)) / SLOT_BITS;
+        int index = slotIndex(timestamp, level);
+        Slot slot = slots[level][index];
+        if (slot == null) {
+            slot = new Slot();
+            slots[level][index] = slot;
+        }
+        slot.add(timestamp, event);
+        occupiedSlots[level] |= 1L << index;
+    }
+
+    /**
+     * The sign bit is flipped, so that the slots of the top level are in the order of the signed timestamps.
+     */
+    private static int slotIndex(long timestamp, int level) {
+        return (int) (((timestamp ^ Long.MIN_VALUE) >>> (SLOT_BITS * level)) & (SLOT_COUNT - 1));
+    }
+
+    /**
+     * Events of a slot in arrival order.
+     */
+    private static class Slot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final int INITIAL_CAPACITY = 4;
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private StreamEvent[] events = new StreamEvent[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private void add(long timestamp, StreamEvent event) {
+            if (size == events.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                events = Arrays.copyOf(events, size * 2);
+            }
+            timestamps[size] = timestamp;
+            events[size] = event;
+            size++;
+        }
+
+        private void clear() {
+            Arrays.fill(events, 0, size, null);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder.buffer;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link ReorderBuffer} keeping the events in a {@link TreeMap} keyed by timestamp.
+ * The event lists emptied by releasing events are reused for new timestamps, and when events are moved to another
+ * tree map buffer the lists move along with them, while the emptied lists of the other buffer are handed back.
+ */
+public class TreeMapReorderBuffer implements ReorderBuffer {
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_FREE_EVENT_LISTS = 64;
+    private TreeMap<Long, List<StreamEvent>> eventTreeMap;
+    private int size = 0;
+    private transient ArrayDeque<List<StreamEvent>> freeEventLists;
+
+    public TreeMapReorderBuffer() {
+        this.eventTreeMap = new TreeMap<>();
+    }
+
+    /**
+     * Create a buffer holding the events of a tree map persisted by an earlier version of the processors.
+     *
+     * @param events events keyed by timestamp
+     */
+    public TreeMapReorderBuffer(Map<Long, ? extends List<StreamEvent>> events) {
+        this.eventTreeMap = new TreeMap<>(events);
+        for (List<StreamEvent> eventList : eventTreeMap.values()) {
+            size += eventList.size();
+        }
+    }
+
+    @Override
+    public void add(long timestamp, StreamEvent event) {
+        Long key = timestamp;
+        List<StreamEvent> eventList = eventTreeMap.get(key);
+        if (eventList == null) {
+            eventList = getFreeEventLists().poll();
+            if (eventList == null) {
+                eventList = new ArrayList<>();
+            }
+            eventTreeMap.put(key, eventList);
+        }
+        eventList.add(event);
+        size++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return eventTreeMap.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long firstTimestamp() {
+        return eventTreeMap.firstKey();
+    }
+
+    @Override
+    public long drain(long maxTimestamp, ComplexEventChunk<StreamEvent> chunk) {
+        long lastTimestamp = NOTHING_DRAINED;
+        //The keys are walked without iterators, which would be allocated on every release.
+        while (!eventTreeMap.isEmpty()) {
+            Long key = eventTreeMap.firstKey();
+            if (key > maxTimestamp) {
+                break;
+            }
+            List<StreamEvent> eventList = eventTreeMap.remove(key);
+            for (int i = 0; i < eventList.size(); i++) {
+                chunk.add(eventList.get(i));
+            }
+            size -= eventList.size();
+            recycle(eventList);
+            lastTimestamp = key;
+        }
+        return lastTimestamp;
+    }
+
+    @Override
+    public void transferTo(ReorderBuffer target) {
+        if (target instanceof TreeMapReorderBuffer) {
+            TreeMapReorderBuffer targetBuffer = (TreeMapReorderBuffer) target;
+            while (!eventTreeMap.isEmpty()) {
+                Long key = eventTreeMap.firstKey();
+                List<StreamEvent> eventList = eventTreeMap.remove(key);
+                List<StreamEvent> list = targetBuffer.eventTreeMap.get(key);
+                if (list != null) {
+                    list.addAll(eventList);
+                    recycle(eventList);
+                } else {
+                    targetBuffer.eventTreeMap.put(key, eventList);
+                }
+            }
+            targetBuffer.size += size;
+            ArrayDeque<List<StreamEvent>> targetFreeEventLists = targetBuffer.getFreeEventLists();
+            while (!targetFreeEventLists.isEmpty() && getFreeEventLists().size() < MAX_FREE_EVENT_LISTS) {
+                getFreeEventLists().push(targetFreeEventLists.pop());
+            }
+        } else {
+            for (Map.Entry<Long, List<StreamEvent>> entry : eventTreeMap.entrySet()) {
+                for (StreamEvent event : entry.getValue()) {
+                    target.add(entry.getKey(), event);
+                }
+            }
+            eventTreeMap.clear();
+        }
+        size = 0;
+    }
+
+    @Override
+    public void addSortedRun(long[] timestamps, StreamEvent[] events, int from, int to) {
+        //The tree is searched once for each distinct timestamp of the run rather than once for each event.
+        int start = from;
+        while (start < to) {
+            int end = start + 1;
+            while (end < to && timestamps[end] == timestamps[start]) {
+                end++;
+            }
+            Long key = timestamps[start];
+            List<StreamEvent> eventList = eventTreeMap.get(key);
+            if (eventList == null) {
+                eventList = getFreeEventLists().poll();
+                if (eventList == null) {
+                    eventList = new ArrayList<>(end - start);
+                }
+                eventTreeMap.put(key, eventList);
+            }
+            for (int i = start; i < end; i++) {
+                eventList.add(events[i]);
+            }
+            start = end;
+        }
+        size += to - from;
+    }
+
+    private void recycle(List<StreamEvent> eventList) {
+        if (getFreeEventLists().size() < MAX_FREE_EVENT_LISTS) {
+            eventList.clear();
+            freeEventLists.push(eventList);
+        }
+    }
+
+    private ArrayDeque<List<StreamEvent>> getFreeEventLists() {
+        if (freeEventLists == null) {
+            //The free lists are not persisted.
+            freeEventLists = new ArrayDeque<>();
+        }
+        return freeEventLists;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.execution.reorder.controller;
+
+import java.io.Serializable;
+
+/**
+ * Controller that adjusts the alpha of Alpha K-Slack, the fraction of the observed disorder kept as the K-Slack
+ * window, from the error between the window coverage threshold and the runtime window coverage of each batch.
+ * Implementations keep their state in the instance, which is snapshotted along with the reorder state.
+ */
+public interface AlphaController extends Serializable {
+
+    /**
+     * Compute the alpha for the next batch.
+     *
+     * @param error window coverage threshold less the runtime window coverage of the batch
+     * @return alpha
+     */
+    double nextAlpha(double error);
+
+    /**
+     * Copy the controller along with its state, so that the copy can be updated without affecting this one.
+     *
+     * @return copy of the controller
+     */
+    AlphaController copy();
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.execution.reorder.controller;
+
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.util.config.ConfigReader;
+
+import java.util.Locale;
+
+/**
+ * Creates the {@link AlphaController} configured for Alpha K-Slack through the system parameters of the extension.
+ */
+public final class AlphaControllerFactory {
+    public static final String PD = "pd";
+    public static final String PID = "pid";
+
+    private AlphaControllerFactory() {
+    }
+
+    /**
+     * Create the controller given by the 'controller' system parameter, with the gains read from the
+     * 'controller.*' system parameters.
+     *
+     * @param configReader config reader of the extension
+     * @return the controller, which is to be copied for each reorder state
+     */
+    public static AlphaController create(ConfigReader configReader) {
+        String type = configReader.readConfig("controller", PD).trim().toLowerCase(Locale.ENGLISH);
+        AlphaController controller;
+        try {
+            switch (type) {
+                case PD:
+                    controller = new PDAlphaController(readDouble(configReader, "controller.kp", 0.5),
+                            readDouble(configReader, "controller.kd", 0.8));
+                    break;
+                case PID:
+                    controller = new PIDAlphaController(readDouble(configReader, "controller.kp", 0.5),
+                            readDouble(configReader, "controller.ki", 0.1),
+                            readDouble(configReader, "controller.kd", 0.8),
+                            readDouble(configReader, "controller.min.alpha", 0),
+                            readDouble(configReader, "controller.max.alpha", 1));
+                    break;
+                default:
+                    throw new SiddhiAppCreationException("Invalid controller '" + type + "' found for " +
+                            "reorder:akslack(). Supported controllers are 'pd' and 'pid'.");
+            }
+            double smoothingFactor = readDouble(configReader, "controller.smoothing.factor", 1);
+            if (smoothingFactor != 1) {
+                controller = new SmoothingAlphaController(controller, smoothingFactor);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new SiddhiAppCreationException("Invalid controller configuration found for reorder:akslack(). " +
+                    e.getMessage(), e);
+        }
+        return controller;
+    }
+
+    private static double readDouble(ConfigReader configReader, String name, double defaultValue) {
+        String value = configReader.readConfig(name, String.valueOf(defaultValue));
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Required a double value for '" + name + "', but found '" +
+                    value + "'.", e);
+        }
+    }
+}
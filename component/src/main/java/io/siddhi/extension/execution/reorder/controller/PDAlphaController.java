@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.execution.reorder.controller;
+
+/**
+ * Proportional-derivative {@link AlphaController}, which adds the weighted error and the weighted change of the
+ * error to the previous alpha.
+ */
+public class PDAlphaController implements AlphaController {
+    private static final long serialVersionUID = 1L;
+    private final double kp;
+    private final double kd;
+    private double previousAlpha;
+    private double previousError;
+
+    public PDAlphaController(double kp, double kd) {
+        this(kp, kd, 0, 0);
+    }
+
+    public PDAlphaController(double kp, double kd, double previousAlpha, double previousError) {
+        this.kp = kp;
+        this.kd = kd;
+        this.previousAlpha = previousAlpha;
+        this.previousError = previousError;
+    }
+
+    @Override
+    public double nextAlpha(double error) {
+        double deltaAlpha = (kp * error) + (kd * (error - previousError));
+        double alpha = Math.abs(previousAlpha + deltaAlpha);
+        previousError = error;
+        previousAlpha = alpha;
+        return alpha;
+    }
+
+    @Override
+    public AlphaController copy() {
+        return new PDAlphaController(kp, kd, previousAlpha, previousError);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.execution.reorder.controller;
+
+/**
+ * Proportional-integral-derivative {@link AlphaController} in velocity form. Each batch changes alpha by the
+ * weighted change of the error, the weighted error and the weighted change of the error's slope. Alpha is clamped
+ * to the given bounds, and as only the previous alpha is carried forward, the error accumulated while alpha is
+ * saturated does not wind up the integral term.
+ */
+public class PIDAlphaController implements AlphaController {
+    private static final long serialVersionUID = 1L;
+    private final double kp;
+    private final double ki;
+    private final double kd;
+    private final double minAlpha;
+    private final double maxAlpha;
+    private double previousAlpha;
+    private double previousError;
+    private double secondPreviousError;
+
+    public PIDAlphaController(double kp, double ki, double kd, double minAlpha, double maxAlpha) {
+        if (minAlpha < 0 || maxAlpha < minAlpha) {
+            throw new IllegalArgumentException("Alpha bounds of the PID controller should satisfy " +
+                    "0 <= min <= max, but found min " + minAlpha + " and max " + maxAlpha);
+        }
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.minAlpha = minAlpha;
+        this.maxAlpha = maxAlpha;
+        this.previousAlpha = minAlpha;
+    }
+
+    @Override
+    public double nextAlpha(double error) {
+        double deltaAlpha = (kp * (error - previousError)) + (ki * error) +
+                (kd * (error - 2 * previousError + secondPreviousError));
+        double alpha = Math.min(maxAlpha, Math.max(minAlpha, previousAlpha + deltaAlpha));
+        secondPreviousError = previousError;
+        previousError = error;
+        previousAlpha = alpha;
+        return alpha;
+    }
+
+    @Override
+    public AlphaController copy() {
+        PIDAlphaController controller = new PIDAlphaController(kp, ki, kd, minAlpha, maxAlpha);
+        controller.previousAlpha = previousAlpha;
+        controller.previousError = previousError;
+        controller.secondPreviousError = secondPreviousError;
+        return controller;
+    }
+}
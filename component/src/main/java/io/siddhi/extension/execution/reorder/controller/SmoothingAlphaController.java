@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.execution.reorder.controller;
+
+/**
+ * {@link AlphaController} that exponentially smooths the alpha computed by another controller, which damps the
+ * oscillation of alpha between batches at the cost of reacting slower to changes in the disorder.
+ */
+public class SmoothingAlphaController implements AlphaController {
+    private static final long serialVersionUID = 1L;
+    private final AlphaController controller;
+    private final double smoothingFactor;
+    private double smoothedAlpha = Double.NaN;
+
+    /**
+     * @param controller      controller whose alpha is smoothed
+     * @param smoothingFactor weight of the latest alpha, in (0, 1]
+     */
+    public SmoothingAlphaController(AlphaController controller, double smoothingFactor) {
+        if (smoothingFactor <= 0 || smoothingFactor > 1) {
+            throw new IllegalArgumentException("Smoothing factor should be in (0, 1], but found " +
+                    smoothingFactor);
+        }
+        this.controller = controller;
+        this.smoothingFactor = smoothingFactor;
+    }
+
+    @Override
+    public double nextAlpha(double error) {
+        double alpha = controller.nextAlpha(error);
+        if (Double.isNaN(smoothedAlpha)) {
+            smoothedAlpha = alpha;
+        } else {
+            smoothedAlpha = smoothingFactor * alpha + (1 - smoothingFactor) * smoothedAlpha;
+        }
+        return smoothedAlpha;
+    }
+
+    @Override
+    public AlphaController copy() {
+        SmoothingAlphaController copy = new SmoothingAlphaController(controller.copy(), smoothingFactor);
+        copy.smoothedAlpha = smoothedAlpha;
+        return copy;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the scalars of the reorder states destroyed after being idle, keyed by partition key, so that
+ * a state created again for the key continues from the same frontier and late arrivals are still recognised.
+ * The least recently retained entries are dropped once the table is full.
+ */
+public class FrontierTable {
+    private final LinkedHashMap<String, long[]> frontiers;
+
+    public FrontierTable(final int maximumSize) {
+        this.frontiers = new LinkedHashMap<String, long[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Retain the scalars of a destroyed state.
+     *
+     * @param partitionKey partition key of the state
+     * @param values       scalars of the state
+     */
+    public synchronized void put(String partitionKey, long[] values) {
+        frontiers.put(partitionKey, values);
+    }
+
+    /**
+     * Take the scalars retained for a partition key, removing them from the table.
+     *
+     * @param partitionKey partition key of the state
+     * @return the scalars, or null if nothing is retained for the key
+     */
+    public synchronized long[] remove(String partitionKey) {
+        return frontiers.remove(partitionKey);
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.statistics.BufferedEventsTracker;
+import io.siddhi.core.util.statistics.EventBufferHolder;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class bounds the memory used by the buffers of all the reorder processors of a Siddhi app.
+ * Each buffer reports its estimated size after processing a chunk, and when the total exceeds the budget, the
+ * buffers are asked to release the excess, starting from the largest buffer. A buffer releases its oldest events
+ * when it next processes a chunk, which includes its timer events. A buffer that does not serve its request in time,
+ * as when its query has gone quiet, is skipped until it reports again, and the buffer reporting while over budget
+ * releases whatever the requests still pending do not cover, hence the budget is met even if the largest buffers
+ * are idle. The bytes buffered by each query are published as a gauge when the statistics of the app are enabled,
+ * and logged whenever the app goes over budget.
+ */
+public class MemoryGovernor {
+    private static final Logger log = Logger.getLogger(MemoryGovernor.class);
+    //Estimated sizes of a buffered event, covering the event, its data arrays and the buffer entry.
+    private static final long EVENT_OVERHEAD = 96;
+    private static final long ATTRIBUTE_SIZE = 24;
+    //Processing time in milliseconds a buffer is given to serve a request, before the request is reassigned.
+    private static final long REQUEST_TIMEOUT = 1000;
+    //Shortest processing time in milliseconds between two rankings of the buffers by size.
+    private static final long RANKING_INTERVAL = 100;
+    //Shortest time in milliseconds between two logs of the usage, the moves over budget in between are counted.
+    private static final long REPORT_INTERVAL = 1000;
+    private static final Map<SiddhiAppContext, MemoryGovernor> GOVERNORS = new WeakHashMap<>();
+    private final String siddhiAppName;
+    private volatile long budget;
+    private final AtomicLong usedBytes = new AtomicLong(0);
+    private final Set<BufferUsage> bufferUsages = ConcurrentHashMap.newKeySet();
+    private volatile boolean overBudget = false;
+    private final List<BufferUsage> requestedUsages = new ArrayList<>(); //Buffers asked to release, guarded by this.
+    private long nextRankingTime = -1L;
+    private long nextReportTime = -1L; //Guarded by this.
+    private int overflowCount = 0; //Moves over budget since the usage was last logged, guarded by this.
+    private final Map<String, QueryUsage> queryUsages = new ConcurrentHashMap<>();
+    private final BufferedEventsTracker bufferedEventsTracker;
+    private final String metricPrefix;
+
+    private MemoryGovernor(SiddhiAppContext siddhiAppContext, long budget) {
+        this.siddhiAppName = siddhiAppContext.getName();
+        this.budget = budget;
+        if (siddhiAppContext.getStatisticsManager() != null) {
+            this.bufferedEventsTracker = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration()
+                    .getFactory().createBufferSizeTracker(siddhiAppContext.getStatisticsManager());
+            this.metricPrefix = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                    SiddhiConstants.METRIC_DELIMITER + siddhiAppName + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_QUERIES + SiddhiConstants.METRIC_DELIMITER;
+        } else {
+            this.bufferedEventsTracker = null;
+            this.metricPrefix = null;
+        }
+    }
+
+    /**
+     * Get the governor of the Siddhi app, creating it if needed. When the reorder processors of an app are
+     * configured with different budgets, the smallest one applies.
+     *
+     * @param siddhiAppContext context of the Siddhi app
+     * @param budget           number of bytes the buffers of the app can hold
+     * @return the governor
+     */
+    public static MemoryGovernor getInstance(SiddhiAppContext siddhiAppContext, long budget) {
+        synchronized (GOVERNORS) {
+            MemoryGovernor governor = GOVERNORS.get(siddhiAppContext);
+            if (governor == null) {
+                governor = new MemoryGovernor(siddhiAppContext, budget);
+                GOVERNORS.put(siddhiAppContext, governor);
+            } else if (budget < governor.budget) {
+                governor.budget = budget;
+            }
+            return governor;
+        }
+    }
+
+    /**
+     * Get the governor of the Siddhi app if a memory budget is configured for the extension.
+     *
+     * @param configReader     config reader of the extension
+     * @param siddhiAppContext context of the Siddhi app
+     * @param functionName     name of the extension, used in the error messages
+     * @return the governor, or null if the memory of the buffers is not bounded
+     */
+    public static MemoryGovernor fromConfig(ConfigReader configReader, SiddhiAppContext siddhiAppContext,
+                                            String functionName) {
+        String budgetConfig = configReader.readConfig("memory.budget", "-1");
+        long budget;
+        try {
+            budget = Long.parseLong(budgetConfig.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid memory budget '" + budgetConfig + "' found for " +
+                    functionName + ". Required a long value in bytes.", e);
+        }
+        if (budget == -1L) {
+            return null;
+        }
+        if (budget <= 0) {
+            throw new SiddhiAppCreationException("Memory budget of " + functionName + " should be positive, but " +
+                    "found " + budget);
+        }
+        return getInstance(siddhiAppContext, budget);
+    }
+
+    /**
+     * Read whether the events released to meet the memory budget are dropped rather than emitted.
+     *
+     * @param configReader config reader of the extension
+     * @param functionName name of the extension, used in the error messages
+     * @return true if the events are dropped
+     */
+    public static boolean isEvictionPolicy(ConfigReader configReader, String functionName) {
+        String policy = configReader.readConfig("memory.overflow.policy", "flush").trim();
+        if ("evict".equalsIgnoreCase(policy)) {
+            return true;
+        } else if ("flush".equalsIgnoreCase(policy)) {
+            return false;
+        }
+        throw new SiddhiAppCreationException("Invalid memory overflow policy '" + policy + "' found for " +
+                functionName + ". Supported policies are 'flush' and 'evict'.");
+    }
+
+    /**
+     * Estimate the memory held by a buffered event of the given stream.
+     *
+     * @param metaStreamEvent meta event of the stream
+     * @return estimated size in bytes
+     */
+    public static long estimateEventSize(MetaStreamEvent metaStreamEvent) {
+        int attributeCount = metaStreamEvent.getBeforeWindowData().size() +
+                metaStreamEvent.getOnAfterWindowData().size() + metaStreamEvent.getOutputData().size();
+        return EVENT_OVERHEAD + ATTRIBUTE_SIZE * attributeCount;
+    }
+
+    /**
+     * Register a buffer, whose usage is reported under the given query name. The first buffer of a query registers
+     * the gauge of the query when the statistics of the app are enabled.
+     *
+     * @param queryName name of the query the buffer belongs to
+     * @return usage of the buffer
+     */
+    public BufferUsage register(String queryName) {
+        BufferUsage bufferUsage = new BufferUsage(queryName);
+        bufferUsages.add(bufferUsage);
+        if (bufferedEventsTracker != null) {
+            queryUsages.computeIfAbsent(queryName, name -> {
+                QueryUsage queryUsage = new QueryUsage(name);
+                bufferedEventsTracker.registerEventBufferHolder(queryUsage,
+                        metricPrefix + name + SiddhiConstants.METRIC_DELIMITER + "reorder.buffered.bytes");
+                return queryUsage;
+            });
+        }
+        return bufferUsage;
+    }
+
+    /**
+     * Remove a buffer that is no longer used.
+     *
+     * @param bufferUsage usage of the buffer
+     */
+    public void unregister(BufferUsage bufferUsage) {
+        if (bufferUsages.remove(bufferUsage)) {
+            usedBytes.addAndGet(-bufferUsage.bytes);
+            //A pending request of the buffer is dropped, hence the excess is reassigned.
+            bufferUsage.bytesToRelease.set(0);
+        }
+    }
+
+    /**
+     * Report the size of a buffer, and ask the buffers to release events if the budget is exceeded. The reporting
+     * buffer is asked for the part of the excess that the other buffers have not been asked for.
+     *
+     * @param bufferUsage usage of the buffer
+     * @param bytes       estimated size of the buffer in bytes
+     */
+    public void update(BufferUsage bufferUsage, long bytes) {
+        long usedBytes = this.usedBytes.addAndGet(bytes - bufferUsage.bytes);
+        bufferUsage.bytes = bytes;
+        bufferUsage.idle = false;
+        if (usedBytes > budget) {
+            requestRelease(bufferUsage, usedBytes - budget);
+        } else {
+            overBudget = false;
+        }
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Get the estimated bytes buffered by each query of the app.
+     *
+     * @return bytes buffered keyed by query name
+     */
+    public Map<String, Long> getUsage() {
+        Map<String, Long> usage = new HashMap<>();
+        for (BufferUsage bufferUsage : bufferUsages) {
+            usage.merge(bufferUsage.queryName, bufferUsage.bytes, Long::sum);
+        }
+        return usage;
+    }
+
+    private synchronized void requestRelease(BufferUsage caller, long excessBytes) {
+        long currentTime = System.currentTimeMillis();
+        if (!overBudget) {
+            overBudget = true;
+            overflowCount++;
+            if (currentTime >= nextReportTime) {
+                nextReportTime = currentTime + REPORT_INTERVAL;
+                log.warn("Reorder buffers of Siddhi app '" + siddhiAppName + "' hold " + usedBytes.get() +
+                        " bytes, exceeding the budget of " + budget + " bytes " + overflowCount + " time(s) since " +
+                        "the last report, hence the largest buffers release their oldest events. Bytes buffered " +
+                        "by query: " + getUsage());
+                overflowCount = 0;
+            }
+        }
+        //Requests served or timed out are dropped, and the rest cover part of the excess.
+        long pendingBytes = 0;
+        for (Iterator<BufferUsage> iterator = requestedUsages.iterator(); iterator.hasNext(); ) {
+            BufferUsage bufferUsage = iterator.next();
+            long bytesToRelease = bufferUsage.bytesToRelease.get();
+            if (bytesToRelease == 0) {
+                iterator.remove();
+            } else if (currentTime - bufferUsage.requestTime >= REQUEST_TIMEOUT) {
+                bufferUsage.bytesToRelease.set(0);
+                bufferUsage.idle = true;
+                iterator.remove();
+            } else if (bufferUsage != caller) {
+                pendingBytes += bytesToRelease;
+            }
+        }
+        excessBytes -= pendingBytes;
+        if (excessBytes <= 0) {
+            return;
+        }
+        if (currentTime >= nextRankingTime) {
+            //The buffers are ranked at intervals, as their sizes change with every chunk.
+            nextRankingTime = currentTime + RANKING_INTERVAL;
+            PriorityQueue<BufferUsage> largestFirst = new PriorityQueue<>(Math.max(1, bufferUsages.size()),
+                    (usage1, usage2) -> Long.compare(usage2.bytes, usage1.bytes));
+            for (BufferUsage bufferUsage : bufferUsages) {
+                if (!bufferUsage.idle && bufferUsage != caller && bufferUsage.bytesToRelease.get() == 0) {
+                    largestFirst.add(bufferUsage);
+                }
+            }
+            while (excessBytes > 0 && !largestFirst.isEmpty() && largestFirst.peek().bytes > caller.bytes) {
+                BufferUsage bufferUsage = largestFirst.poll();
+                long releasedBytes = Math.min(excessBytes, bufferUsage.bytes);
+                bufferUsage.requestTime = currentTime;
+                bufferUsage.bytesToRelease.set(releasedBytes);
+                requestedUsages.add(bufferUsage);
+                excessBytes -= releasedBytes;
+            }
+        }
+        //The reporting buffer releases what the other buffers have not been asked for.
+        if (excessBytes > 0) {
+            caller.bytesToRelease.set(Math.min(excessBytes, caller.bytes));
+        }
+    }
+
+    /**
+     * Gauge of the bytes buffered by a query, summed over the buffers of its partition keys.
+     */
+    private class QueryUsage implements EventBufferHolder {
+        private final String queryName;
+
+        private QueryUsage(String queryName) {
+            this.queryName = queryName;
+        }
+
+        @Override
+        public long getBufferedEvents() {
+            long bytes = 0;
+            for (BufferUsage bufferUsage : bufferUsages) {
+                if (queryName.equals(bufferUsage.queryName)) {
+                    bytes += bufferUsage.bytes;
+                }
+            }
+            return bytes;
+        }
+
+        @Override
+        public boolean containsBufferedEvents() {
+            return getBufferedEvents() > 0;
+        }
+    }
+
+    /**
+     * The memory used by a buffer, along with the bytes it has been asked to release.
+     */
+    public static class BufferUsage {
+        private final String queryName;
+        private volatile long bytes = 0;
+        private final AtomicLong bytesToRelease = new AtomicLong(0);
+        private long requestTime; //Guarded by the governor.
+        private volatile boolean idle = false; //Whether the buffer did not serve a request in time.
+
+        private BufferUsage(String queryName) {
+            this.queryName = queryName;
+        }
+
+        public String getQueryName() {
+            return queryName;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Take the bytes the buffer has been asked to release, clearing the request.
+         *
+         * @return bytes to be released, or 0 if there is no request
+         */
+        public long takeBytesToRelease() {
+            return bytesToRelease.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.query.processor.Processor;
+
+import java.util.ArrayDeque;
+
+/**
+ * This class hands the chunks released by a reorder state over to the next processor outside the lock of the
+ * state. The chunks are queued in the order they are released while holding the lock, and are emitted by one
+ * thread at a time in that order, hence a slow downstream does not hold back the threads adding events to the
+ * buffers. By default a thread finding another thread emitting waits for it, and emits the chunks left, so that
+ * its own events have reached the next processor when it returns, as Siddhi delivers them synchronously. With the
+ * hand-off, the thread leaves its chunk to the emitting thread and returns right away.
+ */
+public class OrderedEmitter {
+    private final ArrayDeque<ComplexEventChunk<StreamEvent>> pendingChunks = new ArrayDeque<>();
+    private final boolean handOff;
+    private Thread emittingThread = null;
+
+    public OrderedEmitter() {
+        this(false);
+    }
+
+    /**
+     * @param handOff whether a thread finding another thread emitting leaves its chunks to that thread rather than
+     *                waiting for them to be emitted
+     */
+    public OrderedEmitter(boolean handOff) {
+        this.handOff = handOff;
+    }
+
+    /**
+     * Queue a released chunk, to be called while holding the lock of the state that released it.
+     *
+     * @param chunk released chunk
+     */
+    public synchronized void enqueue(ComplexEventChunk<StreamEvent> chunk) {
+        if (chunk.getFirst() != null) {
+            pendingChunks.add(chunk);
+        }
+    }
+
+    /**
+     * Emit the queued chunks to the next processor, to be called after releasing the lock of the state. While
+     * another thread is emitting, the calling thread waits for it unless the chunks are handed off. A downstream
+     * query feeding back into the state emits its chunks once the outer emission returns to the loop.
+     *
+     * @param nextProcessor processor the chunks are emitted to
+     */
+    public void emit(Processor nextProcessor) {
+        while (true) {
+            ComplexEventChunk<StreamEvent> chunk;
+            synchronized (this) {
+                if (emittingThread == Thread.currentThread()) {
+                    return;
+                }
+                while (emittingThread != null && !handOff) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        //The chunks are left to the emitting thread.
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (emittingThread != null || pendingChunks.isEmpty()) {
+                    return;
+                }
+                chunk = pendingChunks.poll();
+                emittingThread = Thread.currentThread();
+            }
+            try {
+                nextProcessor.process(chunk);
+            } finally {
+                synchronized (this) {
+                    emittingThread = null;
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.query.processor.Processor;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class runs the release stage of a pipelined reorder processor. The ingest threads hand the chunks they
+ * release over to a dedicated release thread through a {@link SpscRing}, and the release thread emits them to the
+ * next processor in batches, within the partition and group by flows they were released in. Hence the ingest
+ * threads only evaluate timestamps and maintain the buffers, while the downstream runs on the release thread.
+ * The chunks should be published while holding a lock shared by all the ingest threads. When the ring is full the
+ * ingest thread waits for the release thread, and before the pipeline starts or after it stops the chunks are
+ * emitted by the ingest thread itself.
+ */
+public class ReleasePipeline {
+    private static final Logger log = Logger.getLogger(ReleasePipeline.class);
+    private static final int BATCH_SIZE = 64;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private final SpscRing<ReleasedChunk> ring;
+    private final String functionName;
+    private volatile boolean running = false;
+    private volatile Thread releaseThread;
+    private boolean consumerActive = false; //Whether a release thread is started and not yet done, guarded by this.
+    private volatile boolean releaseThreadParked = false;
+
+    /**
+     * @param capacity     number of chunks the ring can hold
+     * @param functionName name of the reorder function, used in the logs
+     */
+    public ReleasePipeline(int capacity, String functionName) {
+        this.ring = new SpscRing<>(capacity);
+        this.functionName = functionName;
+    }
+
+    /**
+     * Start the release thread. If the release thread of an earlier start is still emitting the chunks published
+     * before it stopped, it is waited for, so that the ring is never consumed by two threads.
+     *
+     * @param executorService executor service the release thread runs on
+     */
+    public synchronized void start(ExecutorService executorService) {
+        if (running) {
+            return;
+        }
+        while (consumerActive) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        running = true;
+        consumerActive = true;
+        try {
+            executorService.execute(this::release);
+        } catch (RejectedExecutionException e) {
+            //The app is shutting down, hence the chunks are emitted by the ingest threads.
+            running = false;
+            consumerActive = false;
+        }
+    }
+
+    /**
+     * Stop the release thread once it has emitted the chunks published so far.
+     */
+    public synchronized void stop() {
+        running = false;
+        Thread thread = releaseThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Hand a released chunk over to the release thread.
+     *
+     * @param chunk         released chunk
+     * @param nextProcessor processor the chunk is emitted to
+     */
+    public void publish(ComplexEventChunk<StreamEvent> chunk, Processor nextProcessor) {
+        if (nextProcessor == null || chunk.getFirst() == null) {
+            return;
+        }
+        ReleasedChunk releasedChunk = new ReleasedChunk(chunk, nextProcessor, SiddhiAppContext.getPartitionFlowId(),
+                SiddhiAppContext.getGroupByFlowId());
+        while (!ring.offer(releasedChunk)) {
+            if (!running && releaseThread == null) {
+                emit(releasedChunk);
+                return;
+            }
+            wakeReleaseThread();
+            Thread.yield();
+        }
+        if (!running && releaseThread == null) {
+            //Nobody is left to consume the ring.
+            ring.drain(this::emit, Integer.MAX_VALUE);
+            return;
+        }
+        if (releaseThreadParked) {
+            wakeReleaseThread();
+        }
+    }
+
+    private void wakeReleaseThread() {
+        Thread thread = releaseThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void release() {
+        releaseThread = Thread.currentThread();
+        boolean completed = false;
+        try {
+            while (running || !ring.isEmpty()) {
+                if (ring.drain(this::emit, BATCH_SIZE) == 0) {
+                    releaseThreadParked = true;
+                    //Checked again after announcing the park, so that a chunk published meanwhile is not missed.
+                    if (running && ring.isEmpty()) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    releaseThreadParked = false;
+                }
+            }
+            completed = true;
+        } finally {
+            synchronized (this) {
+                if (!completed) {
+                    //The ingest threads emit the chunks themselves, rather than waiting on a ring nobody consumes.
+                    running = false;
+                    log.error("Release thread of " + functionName + " stopped unexpectedly, hence the released " +
+                            "events are emitted by the threads adding the events.");
+                }
+                releaseThread = null;
+                consumerActive = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private void emit(ReleasedChunk releasedChunk) {
+        String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
+        String groupByFlowId = SiddhiAppContext.getGroupByFlowId();
+        try {
+            startFlows(releasedChunk.partitionFlowId, releasedChunk.groupByFlowId);
+            releasedChunk.nextProcessor.process(releasedChunk.chunk);
+        } catch (Throwable t) {
+            //Errors are caught as well, as the release thread has to keep consuming the ring.
+            log.error("Error while emitting the events released by " + functionName + ".", t);
+        } finally {
+            startFlows(partitionFlowId, groupByFlowId);
+        }
+    }
+
+    static void startFlows(String partitionFlowId, String groupByFlowId) {
+        if (partitionFlowId == null) {
+            SiddhiAppContext.stopPartitionFlow();
+        } else {
+            SiddhiAppContext.startPartitionFlow(partitionFlowId);
+        }
+        if (groupByFlowId == null) {
+            SiddhiAppContext.stopGroupByFlow();
+        } else {
+            SiddhiAppContext.startGroupByFlow(groupByFlowId);
+        }
+    }
+
+    private static class ReleasedChunk {
+        private final ComplexEventChunk<StreamEvent> chunk;
+        private final Processor nextProcessor;
+        private final String partitionFlowId;
+        private final String groupByFlowId;
+
+        private ReleasedChunk(ComplexEventChunk<StreamEvent> chunk, Processor nextProcessor, String partitionFlowId,
+                              String groupByFlowId) {
+            this.chunk = chunk;
+            this.nextProcessor = nextProcessor;
+            this.partitionFlowId = partitionFlowId;
+            this.groupByFlowId = groupByFlowId;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * This class is a bounded lock-free ring buffer for a single producer and a single consumer. Each side keeps a
+ * cached copy of the position of the other side, and reads the actual position only when the cached one says the
+ * ring is full or empty. The positions are published with ordered writes, hence neither side blocks the other.
+ * Several threads may produce one after the other, as long as they are serialized by a lock.
+ *
+ * @param <E> type of the elements
+ */
+public class SpscRing<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); //Position of the next element to be consumed.
+    private final AtomicLong tail = new AtomicLong(); //Position of the next element to be produced.
+    private long cachedHead = 0; //Used by the producer only.
+    private long cachedTail = 0; //Used by the consumer only.
+
+    /**
+     * @param capacity number of elements the ring can hold, rounded up to a power of two
+     */
+    public SpscRing(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity of the ring should be in (0, 2^30], but found " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.elements = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an element, to be called by the producer.
+     *
+     * @param element the element
+     * @return false if the ring is full
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        if (position - cachedHead > mask) {
+            cachedHead = head.get();
+            if (position - cachedHead > mask) {
+                return false;
+            }
+        }
+        elements.lazySet((int) position & mask, element);
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Remove up to the given number of elements in the order they were added, and pass them to the consumer. The
+     * space of the batch is given back to the producer once the whole batch is consumed.
+     *
+     * @param consumer    consumer of the elements
+     * @param maxElements maximum number of elements to be removed
+     * @return number of elements removed
+     */
+    public int drain(Consumer<E> consumer, int maxElements) {
+        long position = head.get();
+        if (position == cachedTail) {
+            cachedTail = tail.get();
+        }
+        int count = (int) Math.min(cachedTail - position, maxElements);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (position + i) & mask;
+            E element = elements.get(index);
+            elements.lazySet(index, null);
+            consumer.accept(element);
+        }
+        if (count > 0) {
+            head.lazySet(position + count);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import java.io.Serializable;
+
+/**
+ * This class keeps the running mean and the population variance of a series of values.
+ * The values are accumulated one at a time using Welford's algorithm, hence the values need not be retained.
+ */
+public class StreamingStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private long count = 0;
+    private double mean = 0;
+    private double squaredDistanceSum = 0; //Sum of squared distances from the running mean.
+
+    public StreamingStatistics() {
+    }
+
+    public StreamingStatistics(StreamingStatistics statistics) {
+        this.count = statistics.count;
+        this.mean = statistics.mean;
+        this.squaredDistanceSum = statistics.squaredDistanceSum;
+    }
+
+    /**
+     * Add a value to the series.
+     *
+     * @param value value to be added
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDistanceSum += delta * (value - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    public double getVariance() {
+        return count == 0 ? Double.NaN : squaredDistanceSum / count;
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0;
+        squaredDistanceSum = 0;
+    }
+}
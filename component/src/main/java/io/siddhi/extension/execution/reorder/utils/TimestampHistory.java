@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class keeps the timestamps of the arrived events, indexed both by arrival order and by timestamp.
+ * The arrival order is kept in a segment tree holding the greatest timestamp and the number of timestamps under
+ * each node, and the timestamps are also kept sorted in a primitive array. As the timestamps are always removed
+ * from the smallest one, removals only move the head of the sorted array, and the counts needed for the runtime
+ * window coverage are found in logarithmic time.
+ * The number of timestamps kept can be bounded, in which case the smallest timestamp is evicted to make room.
+ */
+public class TimestampHistory implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 16;
+    //Segment tree over the arrival positions, the leaf of a position is at capacity + position.
+    private int capacity = INITIAL_CAPACITY;
+    private long[] greatestTimestamps = newGreatestTimestamps(INITIAL_CAPACITY);
+    private int[] counts = new int[2 * INITIAL_CAPACITY];
+    private int nextPosition = 0;
+    //Timestamps in ascending order along with their arrival positions, the live entries are from head to tail.
+    private long[] sortedTimestamps = new long[INITIAL_CAPACITY];
+    private int[] sortedPositions = new int[INITIAL_CAPACITY];
+    private int head = 0;
+    private int tail = 0;
+    private int maximumSize = Integer.MAX_VALUE;
+
+    public TimestampHistory() {
+    }
+
+    public TimestampHistory(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Create the history from the timestamps given in arrival order.
+     *
+     * @param timestamps  timestamps in arrival order
+     * @param maximumSize maximum number of timestamps to be kept
+     * @return the history
+     */
+    public static TimestampHistory fromArray(long[] timestamps, int maximumSize) {
+        TimestampHistory history = new TimestampHistory(maximumSize);
+        for (long timestamp : timestamps) {
+            history.add(timestamp);
+        }
+        return history;
+    }
+
+    /**
+     * Get the timestamps in arrival order, which is a compact form of the history to be snapshotted.
+     *
+     * @return timestamps in arrival order
+     */
+    public long[] toArray() {
+        long[] timestamps = new long[size()];
+        int index = 0;
+        for (int position = 0; position < nextPosition; position++) {
+            if (counts[capacity + position] != 0) {
+                timestamps[index++] = greatestTimestamps[capacity + position];
+            }
+        }
+        return timestamps;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Bound the number of timestamps kept, evicting the smallest timestamps if there are more.
+     *
+     * @param maximumSize maximum number of timestamps to be kept
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of the timestamp history should be positive, " +
+                    "but found " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        while (size() > maximumSize) {
+            removeHead();
+        }
+    }
+
+    /**
+     * Add the timestamp of an arrived event.
+     *
+     * @param timestamp event timestamp
+     */
+    public void add(long timestamp) {
+        if (size() == maximumSize) {
+            removeHead();
+        }
+        if (nextPosition == capacity) {
+            compactPositions();
+        }
+        int position = nextPosition++;
+        setLeaf(position, timestamp, 1);
+
+        if (tail == sortedTimestamps.length) {
+            int size = tail - head;
+            if (head > 0 && size <= sortedTimestamps.length / 2) {
+                System.arraycopy(sortedTimestamps, head, sortedTimestamps, 0, size);
+                System.arraycopy(sortedPositions, head, sortedPositions, 0, size);
+            } else {
+                int length = sortedTimestamps.length * 2;
+                sortedTimestamps = Arrays.copyOfRange(sortedTimestamps, head, head + length);
+                sortedPositions = Arrays.copyOfRange(sortedPositions, head, head + length);
+            }
+            head = 0;
+            tail = size;
+        }
+        //Events mostly arrive in order, hence the insertion point is usually the tail.
+        int index = upperBound(timestamp);
+        System.arraycopy(sortedTimestamps, index, sortedTimestamps, index + 1, tail - index);
+        System.arraycopy(sortedPositions, index, sortedPositions, index + 1, tail - index);
+        sortedTimestamps[index] = timestamp;
+        sortedPositions[index] = position;
+        tail++;
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    /**
+     * Remove the timestamps less than the given timestamp.
+     *
+     * @param timestamp lower bound of the timestamps to be kept
+     */
+    public void removeLessThan(long timestamp) {
+        while (head < tail && sortedTimestamps[head] < timestamp) {
+            removeHead();
+        }
+    }
+
+    /**
+     * Remove the timestamps less than or equal to the given timestamp.
+     *
+     * @param timestamp greatest timestamp to be removed
+     */
+    public void removeUpTo(long timestamp) {
+        while (head < tail && sortedTimestamps[head] <= timestamp) {
+            removeHead();
+        }
+    }
+
+    /**
+     * Count the timestamps less than or equal to the given timestamp.
+     *
+     * @param timestamp greatest timestamp to be counted
+     * @return number of timestamps
+     */
+    public int countUpTo(long timestamp) {
+        return upperBound(timestamp) - head;
+    }
+
+    /**
+     * Count the timestamps that arrived before the first timestamp greater than or equal to the given timestamp.
+     *
+     * @param timestamp timestamp bounding the arrivals
+     * @return number of timestamps, or all of them if no timestamp is greater than or equal to the given one
+     */
+    public int countArrivedBefore(long timestamp) {
+        if (greatestTimestamps[1] < timestamp) {
+            return counts[1];
+        }
+        int count = 0;
+        int node = 1;
+        while (node < capacity) {
+            int left = 2 * node;
+            if (greatestTimestamps[left] >= timestamp) {
+                node = left;
+            } else {
+                count += counts[left];
+                node = left + 1;
+            }
+        }
+        return count;
+    }
+
+    private void removeHead() {
+        setLeaf(sortedPositions[head], Long.MIN_VALUE, 0);
+        head++;
+    }
+
+    private int upperBound(long timestamp) {
+        int low = head;
+        int high = tail;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedTimestamps[mid] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void setLeaf(int position, long timestamp, int count) {
+        int node = capacity + position;
+        greatestTimestamps[node] = timestamp;
+        counts[node] = count;
+        for (node >>>= 1; node > 0; node >>>= 1) {
+            greatestTimestamps[node] = Math.max(greatestTimestamps[2 * node], greatestTimestamps[2 * node + 1]);
+            counts[node] = counts[2 * node] + counts[2 * node + 1];
+        }
+    }
+
+    /**
+     * Move the live timestamps to the front of the arrival positions, keeping their arrival order, and resize the
+     * segment tree to twice the number of live timestamps.
+     */
+    private void compactPositions() {
+        int size = tail - head;
+        int newCapacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, size)) * 4);
+        long[] newGreatestTimestamps = newGreatestTimestamps(newCapacity);
+        int[] newCounts = new int[2 * newCapacity];
+        int[] newPositions = new int[nextPosition];
+        int newPosition = 0;
+        for (int position = 0; position < nextPosition; position++) {
+            if (counts[capacity + position] != 0) {
+                newPositions[position] = newPosition;
+                newGreatestTimestamps[newCapacity + newPosition] = greatestTimestamps[capacity + position];
+                newCounts[newCapacity + newPosition] = 1;
+                newPosition++;
+            }
+        }
+        for (int node = newCapacity - 1; node > 0; node--) {
+            newGreatestTimestamps[node] = Math.max(newGreatestTimestamps[2 * node],
+                    newGreatestTimestamps[2 * node + 1]);
+            newCounts[node] = newCounts[2 * node] + newCounts[2 * node + 1];
+        }
+        for (int i = head; i < tail; i++) {
+            sortedPositions[i] = newPositions[sortedPositions[i]];
+        }
+        capacity = newCapacity;
+        greatestTimestamps = newGreatestTimestamps;
+        counts = newCounts;
+        nextPosition = newPosition;
+    }
+
+    private static long[] newGreatestTimestamps(int capacity) {
+        long[] greatestTimestamps = new long[2 * capacity];
+        Arrays.fill(greatestTimestamps, Long.MIN_VALUE);
+        return greatestTimestamps;
+    }
+}
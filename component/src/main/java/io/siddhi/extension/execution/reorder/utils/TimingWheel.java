@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is a hierarchical timing wheel holding the earliest deadline of each key. The wheel advances one tick
+ * at a time, and each level has 64 slots, each slot of a level covering all the slots of the level below. A
+ * deadline is placed in the lowest level that reaches it, and moved to the lower levels as the wheel turns, hence
+ * scheduling a deadline and finding the due keys take constant time per key.
+ * The class is not thread safe.
+ *
+ * @param <K> type of the keys
+ */
+public class TimingWheel<K> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+    private static final int LEVEL_COUNT = 4;
+    private final long tickDuration;
+    private final List<Entry<K>>[][] slots;
+    private final List<Entry<K>> overflow = new ArrayList<>(); //Deadlines beyond the reach of the top level.
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private long currentTick; //Deadlines up to the end of this tick have been found due.
+
+    /**
+     * @param tickDuration length of a tick in milliseconds
+     * @param startTime    time the wheel starts turning from
+     */
+    public TimingWheel(long tickDuration, long startTime) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration of the timing wheel should be positive, but found " +
+                    tickDuration);
+        }
+        this.tickDuration = tickDuration;
+        this.currentTick = Math.floorDiv(startTime, tickDuration);
+        this.slots = new List[LEVEL_COUNT][SLOT_COUNT];
+    }
+
+    /**
+     * Schedule a deadline for the key. A key keeps only its earliest deadline, hence a later deadline is ignored
+     * while an earlier one is pending.
+     *
+     * @param key      the key
+     * @param deadline time at which the key is due
+     */
+    public void schedule(K key, long deadline) {
+        Long pendingDeadline = deadlines.get(key);
+        if (pendingDeadline != null && pendingDeadline <= deadline) {
+            return;
+        }
+        //The entry of the later deadline stays in its slot, and is skipped when it falls due.
+        deadlines.put(key, deadline);
+        //A deadline within a tick is due at the end of the tick.
+        long tick = Math.floorDiv(deadline - 1, tickDuration) + 1;
+        place(new Entry<>(key, deadline, Math.max(tick, currentTick + 1)));
+    }
+
+    /**
+     * Turn the wheel up to the given time and collect the keys whose deadlines have passed.
+     *
+     * @param currentTime current time
+     * @return the due keys, which no longer have deadlines
+     */
+    public List<K> advance(long currentTime) {
+        List<K> dueKeys = new ArrayList<>();
+        long targetTick = Math.floorDiv(currentTime, tickDuration);
+        while (currentTick < targetTick) {
+            if (deadlines.isEmpty()) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            List<Entry<K>> slot = slots[0][(int) (currentTick & (SLOT_COUNT - 1))];
+            if (slot != null && !slot.isEmpty()) {
+                for (Entry<K> entry : slot) {
+                    Long deadline = deadlines.get(entry.key);
+                    if (deadline != null && deadline == entry.deadline) {
+                        deadlines.remove(entry.key);
+                        dueKeys.add(entry.key);
+                    }
+                }
+                slot.clear();
+            }
+        }
+        return dueKeys;
+    }
+
+    public boolean isEmpty() {
+        return deadlines.isEmpty();
+    }
+
+    /**
+     * @return the time at which the next tick ends
+     */
+    public long getNextTickTime() {
+        return (currentTick + 1) * tickDuration;
+    }
+
+    /**
+     * Move the entries of the upper level slots that start at the current tick to the lower levels.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVEL_COUNT; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            List<Entry<K>> slot = slots[level][(int) ((currentTick >>> shift) & (SLOT_COUNT - 1))];
+            if (slot != null && !slot.isEmpty()) {
+                List<Entry<K>> entries = new ArrayList<>(slot);
+                slot.clear();
+                for (Entry<K> entry : entries) {
+                    place(entry);
+                }
+            }
+        }
+        if (!overflow.isEmpty() && (currentTick & ((1L << (SLOT_BITS * LEVEL_COUNT)) - 1)) == 0) {
+            List<Entry<K>> entries = new ArrayList<>(overflow);
+            overflow.clear();
+            for (Entry<K> entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long ticks = entry.tick - currentTick;
+        if (ticks <= 0) {
+            //Due at the current tick, whose slot is swept after the cascade.
+            addToSlot(0, (int) (currentTick & (SLOT_COUNT - 1)), entry);
+            return;
+        }
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            int shift = SLOT_BITS * level;
+            if (ticks < (1L << (shift + SLOT_BITS))) {
+                addToSlot(level, (int) ((entry.tick >>> shift) & (SLOT_COUNT - 1)), entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void addToSlot(int level, int index, Entry<K> entry) {
+        List<Entry<K>> slot = slots[level][index];
+        if (slot == null) {
+            slot = new ArrayList<>();
+            slots[level][index] = slot;
+        }
+        slot.add(entry);
+    }
+
+    private static class Entry<K> {
+        private final K key;
+        private final long deadline;
+        private final long tick;
+
+        private Entry(K key, long deadline, long tick) {
+            this.key = key;
+            this.deadline = deadline;
+            this.tick = tick;
+        }
+    }
+}
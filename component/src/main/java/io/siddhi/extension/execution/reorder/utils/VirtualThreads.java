@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder.utils;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.util.config.ConfigReader;
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This class runs the timeout flushes and the emissions following them on virtual threads, so that the flushes of
+ * many partition states run concurrently without holding the threads of the Siddhi scheduler. Virtual threads are
+ * looked up at runtime, hence on JDKs older than 21 no executor is created and the flushes run on the scheduler
+ * threads as before.
+ */
+public class VirtualThreads {
+    private static final Logger log = Logger.getLogger(VirtualThreads.class);
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Read the `flush.executor` system parameter of a reorder extension.
+     *
+     * @param configReader config reader of the extension
+     * @param functionName name of the reorder function, used in the errors
+     * @return true if the flushes should run on virtual threads
+     */
+    public static boolean isEnabled(ConfigReader configReader, String functionName) {
+        String flushExecutor = configReader.readConfig("flush.executor", "scheduler").trim();
+        if ("virtual".equalsIgnoreCase(flushExecutor)) {
+            return true;
+        } else if (!"scheduler".equalsIgnoreCase(flushExecutor)) {
+            throw new SiddhiAppCreationException("Invalid flush executor '" + flushExecutor + "' found for " +
+                    functionName + ". Supported executors are 'scheduler' and 'virtual'.");
+        }
+        return false;
+    }
+
+    /**
+     * Create an executor starting a virtual thread per task.
+     *
+     * @param functionName name of the reorder function, used in the logs
+     * @return the executor, or null if the JDK does not support virtual threads
+     */
+    public static ExecutorService newExecutor(String functionName) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            log.warn("Virtual threads are not supported by Java " + System.getProperty("java.version") + ", " +
+                    "hence the timeout flushes of " + functionName + " run on the Siddhi scheduler threads.");
+            return null;
+        }
+    }
+
+    /**
+     * Run a task on the executor within the partition and group by flows of the calling thread, or on the calling
+     * thread if the executor is shut down.
+     *
+     * @param executorService executor of the virtual threads
+     * @param task            the task
+     */
+    public static void execute(ExecutorService executorService, Runnable task) {
+        execute(executorService, SiddhiAppContext.getPartitionFlowId(), task);
+    }
+
+    /**
+     * Run a task on the executor within the given partition flow, or on the calling thread if the executor is shut
+     * down.
+     *
+     * @param executorService executor of the virtual threads
+     * @param partitionFlowId partition key the task runs for
+     * @param task            the task
+     */
+    public static void execute(ExecutorService executorService, String partitionFlowId, Runnable task) {
+        String groupByFlowId = SiddhiAppContext.getGroupByFlowId();
+        try {
+            executorService.execute(() -> {
+                ReleasePipeline.startFlows(partitionFlowId, groupByFlowId);
+                try {
+                    task.run();
+                } finally {
+                    ReleasePipeline.startFlows(null, null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //The extension is stopping, hence the task runs as it would without virtual threads.
+            String callerPartitionFlowId = SiddhiAppContext.getPartitionFlowId();
+            ReleasePipeline.startFlows(partitionFlowId, groupByFlowId);
+            try {
+                task.run();
+            } finally {
+                ReleasePipeline.startFlows(callerPartitionFlowId, groupByFlowId);
+            }
+        }
+    }
+}
@@ -21,8 +21,10 @@ package io.siddhi.extension.execution.reorder.utils;
 import org.apache.log4j.Logger;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class calculate the window coverage
@@ -49,11 +51,38 @@ public class WindowCoverage {
      * @return windowCoverageThreshold
      */
     public double calculateWindowCoverageThreshold(double criticalValue, List<Double> listOfData) {
-        double mean = calculateMean(listOfData);
-        double variance = calculateVariance(listOfData, mean);
-        double temp1 = Math.sqrt((Math.pow(mean, 2) + Math.pow(variance, 2)) /
-                (listOfData.size() * Math.pow(mean, 2)));
-        double temp2 = Math.pow(criticalValue, 2) * Math.pow(temp1, 2);
+        StreamingStatistics statistics = new StreamingStatistics();
+        for (Double aListOfData : listOfData) {
+            statistics.add(aListOfData);
+        }
+        return calculateWindowCoverageThreshold(criticalValue, statistics);
+    }
+
+    /**
+     * Calculate Window Coverage Threshold from the statistics accumulated over the batch
+     *
+     * @param criticalValue critical value for algorithm
+     * @param statistics    mean and variance of the correlation field over the batch
+     * @return windowCoverageThreshold
+     */
+    public double calculateWindowCoverageThreshold(double criticalValue, StreamingStatistics statistics) {
+        return calculateWindowCoverageThreshold(criticalValue, statistics.getMean(), statistics.getVariance(),
+                statistics.getCount());
+    }
+
+    /**
+     * Calculate Window Coverage Threshold from the mean and variance of the correlation field
+     *
+     * @param criticalValue critical value for algorithm
+     * @param mean          mean of the correlation field
+     * @param variance      variance of the correlation field
+     * @param count         number of events the mean and variance stand for
+     * @return windowCoverageThreshold
+     */
+    public double calculateWindowCoverageThreshold(double criticalValue, double mean, double variance, long count) {
+        double meanSquared = mean * mean;
+        double temp1 = Math.sqrt((meanSquared + variance * variance) / (count * meanSquared));
+        double temp2 = criticalValue * criticalValue * temp1 * temp1;
         double a1, b1, c1, b2, c2;
         double windowCoverageThreshold;
         double theta1, theta2, theta3, theta4, tempSq1, tempSq2;
@@ -89,22 +118,6 @@ public class WindowCoverage {
         return windowCoverageThreshold;
     }
 
-    private double calculateMean(List<Double> listOfData) {
-        double sum = 0;
-        for (Double aListOfData : listOfData) {
-            sum += aListOfData;
-        }
-        return sum / listOfData.size();
-    }
-
-    private double calculateVariance(List<Double> listOfData, double meanValue) {
-        double squaredSum = 0;
-        for (Double aListOfData : listOfData) {
-            squaredSum += Math.pow((meanValue - aListOfData), 2);
-        }
-        return squaredSum / listOfData.size();
-    }
-
     /**
      * Calculate Window Coverage
      *
@@ -113,30 +126,34 @@ public class WindowCoverage {
      * @return runtimeWindowCoverage
      */
     public double calculateRuntimeWindowCoverage(List<Long> eventTimestamps, long windowSize) {
-//        long start = System.currentTimeMillis();
         double runtimeWindowCoverage = -1;
         int numerator = 0;
         int denominator = 0;
-        long lowerIndex = 0;
-        long timestamp;
-        Iterator<Long> timestampEntryIterator = eventTimestamps.iterator();
+        int lowerIndex = 0;
         long largestTimestamp = Collections.max(eventTimestamps);
-        int indexOfLargestTimestamp = eventTimestamps.indexOf(largestTimestamp);
         long edgeValue = (largestTimestamp - windowSize);
+        //Index of the first occurrence of each timestamp, in place of looking each of them up.
+        Map<Long, Integer> firstIndexes = new HashMap<>();
+        int index = 0;
+        for (Long timestamp : eventTimestamps) {
+            firstIndexes.putIfAbsent(timestamp, index++);
+        }
+        int indexOfLargestTimestamp = firstIndexes.get(largestTimestamp);
+        Iterator<Long> timestampEntryIterator = eventTimestamps.iterator();
         if (timestampEntryIterator.hasNext()) {
-            timestamp = timestampEntryIterator.next();
+            long timestamp = timestampEntryIterator.next();
             long distance = Math.abs(timestamp - edgeValue);
             while (timestampEntryIterator.hasNext()) {
                 timestamp = timestampEntryIterator.next();
                 long cdistance = Math.abs(timestamp - edgeValue);
                 if (cdistance < distance) {
                     distance = cdistance;
-                    lowerIndex = eventTimestamps.indexOf(timestamp);
+                    lowerIndex = firstIndexes.get(timestamp);
                 }
             }
-            for (long i = edgeValue; i <= largestTimestamp; i++) {
-                int z = eventTimestamps.indexOf(i);
-                if (z >= 0) {
+            for (Map.Entry<Long, Integer> entry : firstIndexes.entrySet()) {
+                if (entry.getKey() >= edgeValue && entry.getKey() <= largestTimestamp) {
+                    int z = entry.getValue();
                     if ((z <= indexOfLargestTimestamp) && (z >= lowerIndex)) {
                         numerator += 1;
                     }
@@ -145,7 +162,6 @@ public class WindowCoverage {
             }
             runtimeWindowCoverage = numerator * 1.0 / denominator;
         }
-//        log.info("Runtime window coverage: " + (System.currentTimeMillis() - start));
         return runtimeWindowCoverage;
     }
 
@@ -157,9 +173,7 @@ public class WindowCoverage {
         int totalEventsForWindow = 0;
         boolean lowWindowTimeMet = false;
         boolean highWindowTimeMet = false;
-        Iterator<Long> timestampIterator = timestamps.iterator();
-        while (timestampIterator.hasNext()) {
-            long timestamp = timestampIterator.next();
+        for (long timestamp : timestamps) {
             if (!lowWindowTimeMet && windowLow <= timestamp) {
                 lowWindowTimeMet = true;
             }
@@ -174,10 +188,35 @@ public class WindowCoverage {
                     totalEventsForWindow++;
                 }
             }
-            if (timestamp <= windowLow) {
-                timestampIterator.remove();
-            }
         }
+        timestamps.removeIf(timestamp -> timestamp <= windowLow);
+        if (totalEventsForWindow != 0) {
+            return (coveredInWindow / (double) totalEventsForWindow);
+        } else {
+            return 1.0;
+        }
+    }
+
+    /**
+     * Calculate Window Coverage over the window ending l behind the current timestamp, and remove the timestamps
+     * which fall behind the window from the history.
+     *
+     * @param currentTimestamp timestamp of the current event
+     * @param history          timestamps of the arrived events
+     * @param l                distance of the window from the current timestamp
+     * @param windowSize       size of the window
+     * @return runtimeWindowCoverage
+     */
+    public double calculateRuntimeWindowCoverage(long currentTimestamp, TimestampHistory history,
+                                                 long l, long windowSize) {
+        long windowHigh = currentTimestamp - l;
+        long windowLow = currentTimestamp - l - windowSize;
+        //Once the timestamps behind the window are gone, every event that arrived before the first event at or
+        //beyond the window high is within the window.
+        history.removeLessThan(windowLow);
+        int coveredInWindow = history.countArrivedBefore(windowHigh);
+        int totalEventsForWindow = history.countUpTo(windowHigh);
+        history.removeUpTo(windowLow);
         if (totalEventsForWindow != 0) {
             return (coveredInWindow / (double) totalEventsForWindow);
         } else {
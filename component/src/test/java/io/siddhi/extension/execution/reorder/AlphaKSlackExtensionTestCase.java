@@ -25,12 +25,24 @@ import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.config.InMemoryConfigManager;
 import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AlphaKSlackExtensionTestCase {
@@ -478,4 +490,639 @@ public class AlphaKSlackExtensionTestCase {
         SiddhiTestHelper.waitForEvents(waitTime, 1, count, timeout);
         executionPlanRuntime.shutdown();
     }
+
+    @Test
+    public void testcase17() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for bounded timestamp history & restore state");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.history.max.size", "16");
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, " + "data, 15l) select  "
+                + "eventtt, data " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertEquals((long) eventCount.incrementAndGet(), event.getData()[0]);
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 20; i++) {
+            inputHandler.send(new Object[]{i, 10.0 + i});
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 20, eventCount, timeout);
+        executionPlanRuntime.persist();
+        executionPlanRuntime.shutdown();
+
+        executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertEquals((long) eventCount.incrementAndGet(), event.getData()[0]);
+                }
+            }
+        });
+        inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        try {
+            executionPlanRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            AssertJUnit.fail("Restoring the state failed: " + e.getMessage());
+        }
+        for (long i = 21; i <= 40; i++) {
+            inputHandler.send(new Object[]{i, 10.0 + i});
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 40, eventCount, timeout);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(40, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testcase18() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase invalid history max size");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.history.max.size", "-5");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, " + "data, 15l) select  "
+                + "eventtt, data " + "insert into outputStream;");
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void testcase19() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for async tuning mode");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.tuning.mode", "async");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,id long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 15l, 1000l) "
+                + "select eventtt, data, id " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[2]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 100; i++) {
+            //Every fifth event arrives two units late.
+            long timestamp = i % 5 == 0 ? i - 2 : i;
+            inputHandler.send(new Object[]{timestamp, 10.0 + (i % 7), i});
+        }
+        //Events still buffered at the end are flushed by the timeout.
+        SiddhiTestHelper.waitForEvents(waitTime, 100, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(100, eventCount.get());
+    }
+
+    @Test
+    public void testcase20() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for stratified sampling");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.sampling", "stratified");
+        extensionConfigs.put("reorder.akslack.sample.size", "10");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,id long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 50l, 1000l) "
+                + "select eventtt, data, id " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[2]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 300; i++) {
+            //Every seventh event arrives three units late.
+            long timestamp = i % 7 == 0 ? i - 3 : i;
+            inputHandler.send(new Object[]{timestamp, 20.0 + (i % 11), i});
+        }
+        //Events still buffered at the end are flushed by the timeout.
+        SiddhiTestHelper.waitForEvents(waitTime, 300, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(300, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testcase21() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase invalid sample size");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.sampling", "stratified");
+        extensionConfigs.put("reorder.akslack.sample.size", "0");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, " + "data, 15l) select  "
+                + "eventtt, data " + "insert into outputStream;");
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void testcase22() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for partitioned query");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (symbol string,eventtt long,data double,id long);";
+        String query = ("partition with (symbol of inputStream) begin "
+                + "@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 15l, 1000l) "
+                + "select symbol, eventtt, data, id " + "insert into outputStream; end;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[3]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 60; i++) {
+            //The events of IBM are in order, while every third event of WSO2 arrives late.
+            inputHandler.send(new Object[]{"IBM", i, 10.0 + (i % 5), i});
+            long timestamp = i % 3 == 0 ? i - 2 : i;
+            inputHandler.send(new Object[]{"WSO2", timestamp, 30.0 + (i % 7), 100 + i});
+        }
+        //The timeout of each partition flushes the events it still buffers.
+        SiddhiTestHelper.waitForEvents(waitTime, 120, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(120, eventCount.get());
+    }
+
+    @Test
+    public void testcase23() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for PID controller with smoothing");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.controller", "pid");
+        extensionConfigs.put("reorder.akslack.controller.ki", "0.2");
+        extensionConfigs.put("reorder.akslack.controller.max.alpha", "2");
+        extensionConfigs.put("reorder.akslack.controller.smoothing.factor", "0.5");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,id long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 50l, 1000l) "
+                + "select eventtt, data, id " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[2]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 300; i++) {
+            //Every seventh event arrives three units late.
+            long timestamp = i % 7 == 0 ? i - 3 : i;
+            inputHandler.send(new Object[]{timestamp, 20.0 + (i % 11), i});
+        }
+        //Events still buffered at the end are flushed by the timeout.
+        SiddhiTestHelper.waitForEvents(waitTime, 300, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(300, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testcase24() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase invalid controller bounds");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.controller", "pid");
+        extensionConfigs.put("reorder.akslack.controller.min.alpha", "0.8");
+        extensionConfigs.put("reorder.akslack.controller.max.alpha", "0.5");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, " + "data, 15l) select  "
+                + "eventtt, data " + "insert into outputStream;");
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void testcase25() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for window size of the following time window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,id long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 15l, 1000l, "
+                + "10000l, false, 0.03, 0.95, 60000l)#window.time(1 min) select eventtt, data, id "
+                + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[2]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 100; i++) {
+            //Every fifth event arrives two units late.
+            long timestamp = i % 5 == 0 ? i - 2 : i;
+            inputHandler.send(new Object[]{timestamp, 10.0 + (i % 7), i});
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 100, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(100, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testcase26() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase invalid window size argument length nine");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,data1 long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, "
+                + "data, 20l,12l,10l,true,0.03,0.95,0l) select  " + "eventtt, data1 "
+                + "insert into outputStream;");
+
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void testcase27() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for adaptive batch size");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.batch.size.mode", "adaptive");
+        extensionConfigs.put("reorder.akslack.retune.min.interval", "10");
+        extensionConfigs.put("reorder.akslack.retune.max.interval", "50");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,id long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 50l, 1000l) "
+                + "select eventtt, data, id " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[2]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 300; i++) {
+            //Every seventh event arrives three units late.
+            long timestamp = i % 7 == 0 ? i - 3 : i;
+            inputHandler.send(new Object[]{timestamp, 20.0 + (i % 11), i});
+            if (i % 100 == 0) {
+                //Pauses end the batches by the maximum retune interval.
+                Thread.sleep(60);
+            }
+        }
+        //Events still buffered at the end are flushed by the timeout.
+        SiddhiTestHelper.waitForEvents(waitTime, 300, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(300, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testcase28() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase invalid retune intervals");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.batch.size.mode", "adaptive");
+        extensionConfigs.put("reorder.akslack.retune.min.interval", "5000");
+        extensionConfigs.put("reorder.akslack.retune.max.interval", "1000");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, " + "data, 15l) select  "
+                + "eventtt, data " + "insert into outputStream;");
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void testcase29() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for the allocation rate of the per-event path");
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean) ||
+                !((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Measuring the memory allocated by a thread is not supported by this JVM.");
+        }
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        //The same events pass through a plain query, which gives the allocations made by Siddhi itself.
+        double baseline = getAllocatedBytesPerEvent(allocationMXBean, "@info(name = 'query1') from inputStream " +
+                "select eventtt, data insert into outputStream;");
+        double reordered = getAllocatedBytesPerEvent(allocationMXBean, "@info(name = 'query1') from " +
+                "inputStream#reorder:akslack(eventtt, data, 20000l) select eventtt, data insert into outputStream;");
+        log.info("Bytes allocated per event, plain query: " + baseline + ", reordering query: " + reordered);
+        //Each event allocates its boxed timestamp key, a tree map entry in the primary and in the secondary buffer,
+        //and the output chunk, which is about 136 bytes with compressed references. Any further allocation per event,
+        //such as an event list or an iterator, takes it over the bound.
+        AssertJUnit.assertTrue("Reordering allocated " + (reordered - baseline) + " bytes per event",
+                reordered - baseline < 160);
+    }
+
+    private double getAllocatedBytesPerEvent(com.sun.management.ThreadMXBean allocationMXBean, String query)
+            throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                eventCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        int warmUpEvents = 50000;
+        int measuredEvents = 100000;
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = 0;
+        for (long i = 1; i <= warmUpEvents + measuredEvents; i++) {
+            if (i == warmUpEvents + 1) {
+                allocatedBytes = allocationMXBean.getThreadAllocatedBytes(threadId);
+            }
+            //Every fifth event arrives three units late, hence it is buffered behind the later events.
+            long timestamp = i % 5 == 0 ? i - 3 : i;
+            inputHandler.send(new Object[]{timestamp, 20.0});
+        }
+        allocatedBytes = allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+        return (double) allocatedBytes / measuredEvents;
+    }
+
+    @Test
+    public void testcase30() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for the order of the events flushed by the timeout");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 20l, 1000l) "
+                + "select eventtt, data " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final List<Long> timestamps = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    timestamps.add((Long) event.getData()[0]);
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        //Event 10 widens K and waits in the secondary buffer, while the late events 5 and 3 wait in the primary one.
+        inputHandler.send(new Object[]{2L, 79.0});
+        inputHandler.send(new Object[]{1L, 75.0});
+        inputHandler.send(new Object[]{10L, 60.0});
+        inputHandler.send(new Object[]{5L, 65.0});
+        inputHandler.send(new Object[]{3L, 70.0});
+        SiddhiTestHelper.waitForEvents(waitTime, 5, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(Arrays.asList(2L, 1L, 3L, 5L, 10L), timestamps);
+    }
+
+    @Test
+    public void testcase31() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase with the calendar queue buffer engine");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.buffer.engine", "calendar");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 20l, 1000l) "
+                + "select eventtt, data " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final List<Long> timestamps = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    timestamps.add((Long) event.getData()[0]);
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        //Event 10 widens K and waits in the secondary buffer, while the late events 5 and 3 wait in the primary one.
+        inputHandler.send(new Object[]{2L, 79.0});
+        inputHandler.send(new Object[]{1L, 75.0});
+        inputHandler.send(new Object[]{10L, 60.0});
+        inputHandler.send(new Object[]{5L, 65.0});
+        inputHandler.send(new Object[]{3L, 70.0});
+        SiddhiTestHelper.waitForEvents(waitTime, 5, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(Arrays.asList(2L, 1L, 3L, 5L, 10L), timestamps);
+    }
+
+    @Test
+    public void testcase32() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for timeout flushes emitted on virtual threads");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.flush.executor", "virtual");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double,id long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 15l, 1000l) "
+                + "select eventtt, data, id " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertTrue("Duplicate event", receivedIds.add((Long) event.getData()[2]));
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (long i = 1; i <= 50; i++) {
+            long timestamp = i % 5 == 0 ? i - 2 : i;
+            inputHandler.send(new Object[]{timestamp, 10.0 + (i % 7), i});
+        }
+        //Older Java versions fall back to emitting on the scheduler threads, with the same outcome.
+        SiddhiTestHelper.waitForEvents(waitTime, 50, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(50, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testcase33() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase invalid flush executor");
+
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.akslack.flush.executor", "platform");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, " + "data, 15l) select  "
+                + "eventtt, data " + "insert into outputStream;");
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void testcase34() throws InterruptedException {
+        log.info("Alpha K-Slack Extension Testcase for the timeout flush merging both buffers in order");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("reorder:akslack", AlphaKSlackExtension.class);
+
+        String inStreamDefinition = "define stream inputStream (eventtt long,data double);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:akslack(eventtt, data, 20l, 1000l) "
+                + "select eventtt, data " + "insert into outputStream;");
+
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final List<Long> timestamps = Collections.synchronizedList(new ArrayList<>());
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    timestamps.add((Long) event.getData()[0]);
+                    eventCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        long[] sent = {1L, 4L, 2L, 8L, 3L, 10L, 12L, 7L, 5L};
+        for (long timestamp : sent) {
+            inputHandler.send(new Object[]{timestamp, 10.0});
+        }
+        //The last two events are late, hence they are still in the primary buffer when the timeout flushes.
+        int emittedBeforeFlush = eventCount.get();
+        SiddhiTestHelper.waitForEvents(waitTime, sent.length, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(sent.length, eventCount.get());
+        List<Long> flushed = new ArrayList<>(timestamps.subList(emittedBeforeFlush, timestamps.size()));
+        List<Long> sortedFlushed = new ArrayList<>(flushed);
+        Collections.sort(sortedFlushed);
+        AssertJUnit.assertEquals(sortedFlushed, flushed);
+    }
 }
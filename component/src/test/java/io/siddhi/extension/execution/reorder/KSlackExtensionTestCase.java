@@ -25,11 +25,27 @@ import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.config.InMemoryConfigManager;
+import io.siddhi.extension.execution.reorder.utils.MemoryGovernor;
+import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * This is the test case for KSlackExtension.
  * Created by miyurud on 8/10/15.
@@ -755,4 +771,745 @@ public class KSlackExtensionTestCase {
         siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
 
     }
+
+    @Test
+    public void orderTestPatienceBufferEngine() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with patience buffer engine");
+        assertBufferEngineOrder("patience");
+    }
+
+    @Test
+    public void orderTestSortedArrayBufferEngine() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with sorted array buffer engine");
+        assertBufferEngineOrder("sortedarray");
+    }
+
+    @Test
+    public void orderTestSkipListBufferEngine() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with skip list buffer engine");
+        assertBufferEngineOrder("skiplist");
+    }
+
+    @Test
+    public void orderTestCalendarBufferEngine() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with calendar queue buffer engine");
+        assertBufferEngineOrder("calendar");
+    }
+
+    @Test
+    public void orderTestTimingWheelBufferEngine() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with timing wheel buffer engine");
+        assertBufferEngineOrder("timingwheel");
+    }
+
+    private void assertBufferEngineOrder(String bufferEngine) throws InterruptedException {
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.buffer.engine", bufferEngine);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#reorder:kslack(eventtt, 1000L) " +
+                "select eventtt, price, volume " +
+                "insert into outputStream;";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(
+                inStreamDefinition + query);
+        final long[] expectedOrder = {1L, 4L, 3L, 5L, 6L, 7L, 8L, 9L, 10L, 13L};
+
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertEquals(expectedOrder[count], event.getData()[0]);
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{1L, 700f, 100L});
+        inputHandler.send(new Object[]{4L, 60.5f, 200L});
+        inputHandler.send(new Object[]{3L, 60.5f, 200L});
+        inputHandler.send(new Object[]{5L, 700f, 100L});
+        inputHandler.send(new Object[]{6L, 60.5f, 200L});
+        inputHandler.send(new Object[]{9L, 60.5f, 200L});
+        inputHandler.send(new Object[]{7L, 700f, 100L});
+        inputHandler.send(new Object[]{8L, 60.5f, 200L});
+        inputHandler.send(new Object[]{10L, 60.5f, 200L});
+        inputHandler.send(new Object[]{13L, 60.5f, 200L});
+
+        Thread.sleep(2000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 10, count);
+    }
+
+    @Test
+    public void orderTestIdleAdvance() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with idle advance interval");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.idle.advance.interval", "500");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#reorder:kslack(eventtt) " +
+                "select eventtt, price, volume " +
+                "insert into outputStream;";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(
+                inStreamDefinition + query);
+        final long[] expectedOrder = {10L, 5L, 20L};
+
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    AssertJUnit.assertEquals(expectedOrder[count], event.getData()[0]);
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{10L, 700f, 100L});
+        inputHandler.send(new Object[]{5L, 60.5f, 200L});
+        inputHandler.send(new Object[]{20L, 60.5f, 200L});
+
+        Thread.sleep(100);
+        //K has grown to 15, hence the last event is held until the frontier moves.
+        AssertJUnit.assertEquals("Event count", 2, count);
+
+        Thread.sleep(1500);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 3, count);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void orderTestInvalidIdleAdvanceInterval() throws InterruptedException {
+        log.info("KSlackExtensionTestCase for invalid idle advance interval");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.idle.advance.interval", "0");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, "
+                + "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void orderTestInvalidBufferEngine() throws InterruptedException {
+        log.info("KSlackExtensionTestCase for invalid buffer engine");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.buffer.engine", "heap");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt, 1000L) select eventtt, "
+                + "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void orderTestMemoryBudgetFlush() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with memory budget flushing the oldest events");
+        sendEventsOverMemoryBudget("flush");
+        //Only about ten events fit in the budget, the rest are flushed ahead of the frontier.
+        AssertJUnit.assertTrue("Event count " + count, count > 40);
+    }
+
+    @Test
+    public void orderTestMemoryBudgetEvict() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with memory budget evicting the oldest events");
+        sendEventsOverMemoryBudget("evict");
+        AssertJUnit.assertEquals("Event count", 1, count);
+    }
+
+    private void sendEventsOverMemoryBudget(String overflowPolicy) throws InterruptedException {
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.memory.budget", "2400");
+        extensionConfigs.put("reorder.kslack.memory.overflow.policy", overflowPolicy);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, "
+                + "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                count += events.length;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        //K grows to 999, hence the late events that follow are held until the memory budget is exceeded.
+        inputHandler.send(new Object[]{1L, 700L, 100L});
+        inputHandler.send(new Object[]{1000L, 700L, 100L});
+        for (long i = 2; i <= 60; i++) {
+            inputHandler.send(new Object[]{i, 60L, 200L});
+        }
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+    }
+
+    @Test
+    public void orderTestMemoryBudgetUsageReport() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with the bytes buffered by the query logged on every move over budget");
+        List<String> reports = Collections.synchronizedList(new ArrayList<>());
+        AppenderSkeleton appender = new AppenderSkeleton() {
+            @Override
+            protected void append(LoggingEvent loggingEvent) {
+                reports.add(loggingEvent.getRenderedMessage());
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public boolean requiresLayout() {
+                return false;
+            }
+        };
+        Logger governorLogger = Logger.getLogger(MemoryGovernor.class);
+        governorLogger.addAppender(appender);
+        try {
+            Map<String, String> extensionConfigs = new HashMap<>();
+            extensionConfigs.put("reorder.kslack.memory.budget", "2400");
+            SiddhiManager siddhiManager = new SiddhiManager();
+            siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+            String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+            String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, "
+                    + "price, volume insert into outputStream;");
+            siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+            SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+            InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+            executionPlanRuntime.start();
+            //K grows to 999, hence the late events of each burst are held until the memory budget is exceeded.
+            inputHandler.send(new Object[]{1L, 700L, 100L});
+            inputHandler.send(new Object[]{1000L, 700L, 100L});
+            for (int burst = 0; burst < 2; burst++) {
+                for (long i = 2; i <= 60; i++) {
+                    inputHandler.send(new Object[]{i, 60L, 200L});
+                }
+                //The second move over budget comes after the usage is due to be logged again.
+                Thread.sleep(1100);
+            }
+            executionPlanRuntime.shutdown();
+        } finally {
+            governorLogger.removeAppender(appender);
+        }
+        AssertJUnit.assertTrue("Usage reports " + reports, reports.size() >= 2);
+        Pattern queryUsage = Pattern.compile("query1=(\\d+)");
+        for (String report : reports) {
+            Matcher matcher = queryUsage.matcher(report);
+            AssertJUnit.assertTrue("Usage report " + report, matcher.find());
+            AssertJUnit.assertTrue("Usage report " + report, Long.parseLong(matcher.group(1)) > 2400);
+        }
+    }
+
+    @Test
+    public void orderTestMemoryBudgetIdleBuffer() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with memory budget exceeded while the largest buffer is idle");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.memory.budget", "2400");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, symbol string, volume long);";
+        String query = "partition with (symbol of inputStream) begin " +
+                "@info(name = 'query1') from inputStream#reorder:kslack(eventtt) " +
+                "select eventtt, symbol, volume insert into outputStream; " +
+                "end;";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        Map<Object, Integer> counts = new HashMap<>();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                synchronized (counts) {
+                    for (io.siddhi.core.event.Event event : events) {
+                        counts.merge(event.getData()[1], 1, Integer::sum);
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        //The buffer of IBM holds ten events and then goes quiet, as no timeout is given.
+        for (String symbol : new String[]{"IBM", "WSO2"}) {
+            int lateEvents = "IBM".equals(symbol) ? 9 : 59;
+            inputHandler.send(new Object[]{1L, symbol, 100L});
+            inputHandler.send(new Object[]{1000L, symbol, 100L});
+            for (long i = 2; i < 2 + lateEvents; i++) {
+                inputHandler.send(new Object[]{i, symbol, 100L});
+            }
+        }
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        synchronized (counts) {
+            AssertJUnit.assertEquals("IBM event count", 1, (int) counts.get("IBM"));
+            //The budget is met by the buffer of WSO2 releasing what the idle buffer of IBM cannot, hence it holds
+            //only a few events, rather than as many as the idle buffer.
+            AssertJUnit.assertTrue("WSO2 event count " + counts.get("WSO2"), counts.get("WSO2") > 52);
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void orderTestInvalidMemoryBudget() throws InterruptedException {
+        log.info("KSlackExtensionTestCase for invalid memory budget");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.memory.budget", "0");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, "
+                + "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void orderTestIdleStateEviction() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with idle partition state eviction");
+        //The state of the key is destroyed, hence the late event is not known to be late.
+        AssertJUnit.assertEquals("Event count", 2, sendLateEventAfterIdle("false"));
+    }
+
+    @Test
+    public void orderTestIdleStateEvictionRetainingFrontier() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with idle partition state eviction retaining the frontier");
+        //The last emitted timestamp of the key is retained, hence the late event is discarded.
+        AssertJUnit.assertEquals("Event count", 1, sendLateEventAfterIdle("true"));
+    }
+
+    private int sendLateEventAfterIdle(String retainFrontier) throws InterruptedException {
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.state.idle.timeout", "100");
+        extensionConfigs.put("reorder.kslack.state.retain.frontier", retainFrontier);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, symbol string, volume long);";
+        String query = "partition with (symbol of inputStream) begin " +
+                "@info(name = 'query1') from inputStream#reorder:kslack(eventtt, true) " +
+                "select eventtt, symbol, volume insert into outputStream; " +
+                "end;";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                count += events.length;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{10L, "IBM", 100L});
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{5L, "IBM", 200L});
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        return count;
+    }
+
+    @Test
+    public void orderTestTimingWheelTimeout() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with partition state timeouts swept by the timing wheel");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.timer.tick", "100");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, symbol string, volume long);";
+        String query = "partition with (symbol of inputStream) begin " +
+                "@info(name = 'query1') from inputStream#reorder:kslack(eventtt, 1000L) " +
+                "select eventtt, symbol, volume insert into outputStream; " +
+                "end;";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                count += events.length;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (String symbol : new String[]{"IBM", "WSO2", "ORCL"}) {
+            inputHandler.send(new Object[]{1L, symbol, 100L});
+            inputHandler.send(new Object[]{3L, symbol, 100L});
+        }
+        //The event having the greatest timestamp of each key is held until its timeout.
+        AssertJUnit.assertEquals("Event count", 3, count);
+        Thread.sleep(2000);
+        AssertJUnit.assertEquals("Event count", 6, count);
+        executionPlanRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void orderTestInvalidTimerTick() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with an invalid timer tick");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.timer.tick", "0");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt, 1000L) select eventtt, " +
+                "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void orderTestSlowDownstream() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with a slow downstream fed by concurrent partitions");
+        sendToSlowDownstream("false", "partition with (symbol of inputStream) begin " +
+                "@info(name = 'query1') from inputStream#reorder:kslack(eventtt) " +
+                "select eventtt, symbol, volume insert into outputStream; " +
+                "end;");
+    }
+
+    @Test
+    public void orderTestSlowDownstreamHandOff() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with a slow downstream fed by concurrent senders handing off emission");
+        //The senders share the state, and the events held at the end are flushed by the timeout.
+        sendToSlowDownstream("true", "@info(name = 'query1') from inputStream#reorder:kslack(eventtt, 1000L) " +
+                "select eventtt, symbol, volume insert into outputStream;");
+    }
+
+    private void sendToSlowDownstream(String emissionHandOff, String query) throws InterruptedException {
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.emission.handoff", emissionHandOff);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, symbol string, volume long);";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        Map<Object, Long> lastTimestamps = new HashMap<>();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                synchronized (lastTimestamps) {
+                    for (io.siddhi.core.event.Event event : events) {
+                        Long lastTimestamp = lastTimestamps.put(event.getData()[1], (Long) event.getData()[0]);
+                        if (lastTimestamp != null && lastTimestamp > (Long) event.getData()[0]) {
+                            eventArrived = true;
+                        }
+                        count++;
+                    }
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        Thread[] senders = new Thread[2];
+        for (int i = 0; i < senders.length; i++) {
+            String symbol = "SYMBOL" + i;
+            senders[i] = new Thread(() -> {
+                try {
+                    for (long timestamp = 1; timestamp <= 100; timestamp++) {
+                        inputHandler.send(new Object[]{timestamp, symbol, 100L});
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            senders[i].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        if (Boolean.parseBoolean(emissionHandOff)) {
+            //The last events sent may still be emitted by the other sender, or held until the timeout.
+            for (int i = 0; i < 50 && count < 200; i++) {
+                Thread.sleep(100);
+            }
+        }
+        executionPlanRuntime.shutdown();
+        //The events of each key are emitted in order. Without the hand-off, every event has been emitted when its
+        //send returns, none of them being held back by the other key.
+        AssertJUnit.assertEquals("Event count", 200, count);
+        AssertJUnit.assertFalse("Out of order event", eventArrived);
+    }
+
+    @Test
+    public void orderTestPipelinedExecution() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with the pipelined execution mode");
+        double syncRate = sendThroughSlowDownstream("sync");
+        double pipelinedRate = sendThroughSlowDownstream("pipelined");
+        log.info("Events per millisecond through a slow downstream, sync: " + syncRate + ", pipelined: " +
+                pipelinedRate);
+        //The burst fits in the release ring, hence in pipelined mode the sender is not held by the downstream.
+        AssertJUnit.assertTrue("Pipelined rate " + pipelinedRate + " is not above the sync rate " + syncRate,
+                pipelinedRate > syncRate);
+    }
+
+    /**
+     * Send a burst of events in order through a downstream taking a while per chunk, and verify that all of them
+     * are emitted in order.
+     *
+     * @return the rate at which the events were taken in, in events per millisecond
+     */
+    private double sendThroughSlowDownstream(String executionMode) throws InterruptedException {
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.execution.mode", executionMode);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, " +
+                "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        AtomicInteger eventCount = new AtomicInteger(0);
+        AtomicBoolean outOfOrder = new AtomicBoolean(false);
+        long[] lastTimestamp = {0};
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                //Asserted on the test thread, as the callback runs on the release thread in pipelined mode.
+                for (io.siddhi.core.event.Event event : events) {
+                    if ((Long) event.getData()[0] != lastTimestamp[0] + 1) {
+                        outOfOrder.set(true);
+                    }
+                    lastTimestamp[0] = (Long) event.getData()[0];
+                    eventCount.incrementAndGet();
+                }
+                //Stands for a costly downstream query.
+                LockSupport.parkNanos(20000);
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        long startTime = System.nanoTime();
+        for (long timestamp = 1; timestamp <= 1000; timestamp++) {
+            inputHandler.send(new Object[]{timestamp, 100L, 10L});
+        }
+        double rate = 1000 / ((System.nanoTime() - startTime) / 1000000.0);
+        SiddhiTestHelper.waitForEvents(100, 1000, eventCount, 10000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 1000, eventCount.get());
+        AssertJUnit.assertFalse("Out of order event", outOfOrder.get());
+        return rate;
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void orderTestInvalidExecutionMode() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with an invalid execution mode");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.execution.mode", "parallel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, " +
+                "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test
+    public void orderTestReplayChunk() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with a replay chunk taken in as a whole");
+        assertReplayChunkOrder("treemap");
+    }
+
+    @Test
+    public void orderTestReplayChunkBufferEngines() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with a replay chunk merged into each buffer engine");
+        for (String bufferEngine : new String[]{"patience", "sortedarray", "skiplist", "calendar", "timingwheel"}) {
+            count = 0;
+            assertReplayChunkOrder(bufferEngine);
+        }
+    }
+
+    private void assertReplayChunkOrder(String bufferEngine) throws InterruptedException {
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.replay.chunk.size", "10");
+        extensionConfigs.put("reorder.kslack.buffer.engine", bufferEngine);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, " +
+                "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                for (io.siddhi.core.event.Event event : events) {
+                    count++;
+                    AssertJUnit.assertEquals((long) count, event.getData()[0]);
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        //Each pair of events arrives swapped, hence K reaches 3 as it would one event at a time.
+        Event[] events = new Event[20];
+        for (int i = 0; i < events.length; i++) {
+            long timestamp = i % 2 == 0 ? i + 2 : i;
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{timestamp, 100L, 10L});
+        }
+        inputHandler.send(events);
+        //A second chunk is merged with the events still buffered from the first.
+        for (int i = 0; i < events.length; i++) {
+            long timestamp = i % 2 == 0 ? i + 22 : i + 20;
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{timestamp, 100L, 10L});
+        }
+        inputHandler.send(events);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 37, count);
+    }
+
+    @Test
+    public void orderTestReplayChunkSpeedup() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with a replay chunk merged as a sorted run");
+        //Taken in one at a time, every event of the descending run is inserted at the head of the sorted array,
+        //shifting all the buffered events, while the replay chunk is sorted once and merged in linear time.
+        long replayTime = sendDescendingRun(true);
+        long perEventTime = sendDescendingRun(false);
+        log.info("Replay chunk took " + replayTime / 1000000 + " ms, one event at a time took " +
+                perEventTime / 1000000 + " ms");
+        AssertJUnit.assertTrue("Replay chunk is not faster", replayTime < perEventTime);
+    }
+
+    private long sendDescendingRun(boolean replay) throws InterruptedException {
+        int runLength = 50000;
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.buffer.engine", "sortedarray");
+        if (replay) {
+            extensionConfigs.put("reorder.kslack.replay.chunk.size", "1000");
+        }
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt) select eventtt, " +
+                "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        AtomicInteger eventCount = new AtomicInteger(0);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                eventCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        //The first three events widen K beyond the run, hence the whole descending run stays buffered.
+        Event[] events = new Event[runLength + 3];
+        long[] leadingTimestamps = {2L * runLength, 0L, 2L * runLength + 1};
+        for (int i = 0; i < 3; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{leadingTimestamps[i], 100L, 10L});
+        }
+        for (int i = 0; i < runLength; i++) {
+            events[i + 3] = new Event(System.currentTimeMillis(), new Object[]{(long) (runLength - i), 100L, 10L});
+        }
+        long startTime = System.nanoTime();
+        inputHandler.send(events);
+        long time = System.nanoTime() - startTime;
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 1, eventCount.get());
+        return time;
+    }
+
+    @Test
+    public void orderTestVirtualFlushExecutor() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with partition state timeouts flushed on virtual threads");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.timer.tick", "100");
+        extensionConfigs.put("reorder.kslack.flush.executor", "virtual");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, symbol string, volume long);";
+        String query = "partition with (symbol of inputStream) begin " +
+                "@info(name = 'query1') from inputStream#reorder:kslack(eventtt, 1000L) " +
+                "select eventtt, symbol, volume insert into outputStream; " +
+                "end;";
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        AtomicInteger eventCount = new AtomicInteger(0);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(io.siddhi.core.event.Event[] events) {
+                eventCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        for (String symbol : new String[]{"IBM", "WSO2", "ORCL"}) {
+            inputHandler.send(new Object[]{1L, symbol, 100L});
+            inputHandler.send(new Object[]{3L, symbol, 100L});
+        }
+        //Older Java versions fall back to flushing on the scheduler threads, with the same outcome.
+        AssertJUnit.assertEquals("Event count", 3, eventCount.get());
+        SiddhiTestHelper.waitForEvents(100, 6, eventCount, 5000);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 6, eventCount.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void orderTestInvalidFlushExecutor() throws InterruptedException {
+        log.info("KSlackExtensionTestCase with an invalid flush executor");
+        Map<String, String> extensionConfigs = new HashMap<>();
+        extensionConfigs.put("reorder.kslack.flush.executor", "platform");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setConfigManager(new InMemoryConfigManager(extensionConfigs, new HashMap<>()));
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:kslack(eventtt, 1000L) select eventtt, " +
+                "price, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:kslack", KSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
 }
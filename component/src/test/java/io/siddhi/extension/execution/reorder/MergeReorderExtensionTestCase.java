@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This is the test case for MergeReorderExtension.
+ */
+public class MergeReorderExtensionTestCase {
+    private static final Logger log = Logger.getLogger(MergeReorderExtensionTestCase.class);
+    private List<Long> receivedEvents;
+
+    @BeforeMethod
+    public void init() {
+        receivedEvents = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    public void mergeOrderTest() throws InterruptedException {
+        log.info("MergeReorderExtensionTestCase TestCase 1");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, source string, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#reorder:merge(eventtt, source, 500L) " +
+                "select eventtt, source, volume " +
+                "insert into outputStream;";
+        siddhiManager.setExtension("reorder:merge", MergeReorderExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(
+                inStreamDefinition + query);
+
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    receivedEvents.add((Long) event.getData()[0]);
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{1L, "A", 100L});
+        inputHandler.send(new Object[]{2L, "B", 100L});
+        inputHandler.send(new Object[]{5L, "A", 100L});
+        inputHandler.send(new Object[]{7L, "A", 100L});
+        inputHandler.send(new Object[]{6L, "B", 100L});
+        //Arrives after events up to 6 are released, hence emitted right away.
+        inputHandler.send(new Object[]{3L, "B", 100L});
+        AssertJUnit.assertEquals(Arrays.asList(1L, 2L, 5L, 6L, 3L), receivedEvents);
+
+        //Source B goes silent, and stops holding back the events of source A once it is idle.
+        inputHandler.send(new Object[]{10L, "A", 100L});
+        AssertJUnit.assertEquals(5, receivedEvents.size());
+        Thread.sleep(1500);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(Arrays.asList(1L, 2L, 5L, 6L, 3L, 7L, 10L), receivedEvents);
+    }
+
+    @Test
+    public void mergeRestoreIdleTimeoutTest() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("MergeReorderExtensionTestCase for idle timeout of restored events");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, source string, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#reorder:merge(eventtt, source, 500L) " +
+                "select eventtt, source, volume " +
+                "insert into outputStream;";
+        siddhiManager.setExtension("reorder:merge", MergeReorderExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(
+                inStreamDefinition + query);
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{1L, "A", 100L});
+        inputHandler.send(new Object[]{2L, "B", 100L});
+        inputHandler.send(new Object[]{5L, "A", 100L});
+        executionPlanRuntime.persist();
+        executionPlanRuntime.shutdown();
+
+        executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    receivedEvents.add((Long) event.getData()[0]);
+                }
+            }
+        });
+        executionPlanRuntime.start();
+        executionPlanRuntime.restoreLastRevision();
+        //The event held back by source B is flushed once the sources are idle, without any further arrival.
+        Thread.sleep(1500);
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(Arrays.asList(5L), receivedEvents);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void mergeInvalidSourceIdTest() {
+        log.info("MergeReorderExtensionTestCase for invalid source id type");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, source double, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:merge(eventtt, source) "
+                + "select eventtt, source, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:merge", MergeReorderExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void mergeNonConstantIdleTimeoutTest() {
+        log.info("MergeReorderExtensionTestCase for non constant idle timeout");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, source string, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:merge(eventtt, source, volume) "
+                + "select eventtt, source, volume insert into outputStream;");
+        siddhiManager.setExtension("reorder:merge", MergeReorderExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.siddhi.extension.execution.reorder;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is the test case for ShardedKSlackExtension.
+ */
+public class ShardedKSlackExtensionTestCase {
+    private static final Logger log = Logger.getLogger(ShardedKSlackExtensionTestCase.class);
+    private List<Long> timestamps;
+    private Map<String, List<Long>> keyTimestamps;
+
+    @BeforeMethod
+    public void init() {
+        timestamps = new ArrayList<>();
+        keyTimestamps = new HashMap<>();
+    }
+
+    @Test
+    public void shardedKeyOrderTest() throws InterruptedException {
+        log.info("ShardedKSlackExtensionTestCase with the key output order");
+        SiddhiAppRuntime executionPlanRuntime = createRuntime("reorder:shardedkslack(eventtt, symbol, 4)");
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Event[]{
+                event(1L, "IBM"), event(3L, "IBM"), event(2L, "WSO2"), event(2L, "IBM"), event(5L, "WSO2"),
+                event(4L, "WSO2"), event(6L, "IBM"), event(8L, "WSO2"), event(9L, "IBM")});
+        inputHandler.send(new Event[]{event(10L, "IBM"), event(12L, "WSO2")});
+        executionPlanRuntime.shutdown();
+
+        //IBM and WSO2 hash into different shards of the four, hence each key is reordered by the K-Slack window of
+        //its own shard, which widens once the first late event of the shard arrives.
+        AssertJUnit.assertEquals(Arrays.asList(1L, 3L, 2L, 6L), keyTimestamps.get("IBM"));
+        AssertJUnit.assertEquals(Arrays.asList(2L, 5L, 4L, 8L), keyTimestamps.get("WSO2"));
+    }
+
+    @Test
+    public void shardedSharedWindowTest() throws InterruptedException {
+        log.info("ShardedKSlackExtensionTestCase with two keys sharing the K-Slack window of a shard");
+        SiddhiAppRuntime executionPlanRuntime = createRuntime("reorder:shardedkslack(eventtt, symbol, 1)");
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Event[]{
+                event(1L, "IBM"), event(3L, "IBM"), event(2L, "WSO2"), event(2L, "IBM"), event(5L, "WSO2"),
+                event(4L, "WSO2"), event(6L, "IBM"), event(8L, "WSO2"), event(9L, "IBM")});
+        inputHandler.send(new Event[]{event(10L, "IBM"), event(12L, "WSO2")});
+        executionPlanRuntime.shutdown();
+
+        //The late events of both keys widen the K of the single shard, hence the late 4 of WSO2 is in order, and the
+        //events of IBM are released as the events of WSO2 move the shared frontier.
+        AssertJUnit.assertEquals(Arrays.asList(1L, 3L, 2L, 2L, 4L, 5L, 6L, 8L, 9L), timestamps);
+        AssertJUnit.assertEquals(Arrays.asList(1L, 3L, 2L, 6L, 9L), keyTimestamps.get("IBM"));
+        AssertJUnit.assertEquals(Arrays.asList(2L, 4L, 5L, 8L), keyTimestamps.get("WSO2"));
+    }
+
+    @Test
+    public void shardedGlobalOrderTest() throws InterruptedException {
+        log.info("ShardedKSlackExtensionTestCase with the global output order");
+        SiddhiAppRuntime executionPlanRuntime = createRuntime(
+                "reorder:shardedkslack(eventtt, symbol, 4, 'global')");
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Event[]{
+                event(1L, "IBM"), event(3L, "IBM"), event(2L, "WSO2"), event(2L, "IBM"), event(5L, "WSO2"),
+                event(4L, "WSO2"), event(6L, "IBM"), event(8L, "WSO2"), event(9L, "IBM")});
+        inputHandler.send(new Event[]{event(10L, "IBM"), event(12L, "WSO2")});
+        executionPlanRuntime.shutdown();
+
+        //The events are merged up to the smaller frontier of the two keys, hence the late events are in order.
+        AssertJUnit.assertEquals(Arrays.asList(1L, 2L, 2L, 3L, 4L, 5L, 6L), timestamps);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void shardedInvalidOutputOrderTest() {
+        log.info("ShardedKSlackExtensionTestCase with an invalid output order");
+        createRuntime("reorder:shardedkslack(eventtt, symbol, 4, 'partial')");
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void shardedInvalidShardCountTest() {
+        log.info("ShardedKSlackExtensionTestCase with an invalid shard count");
+        createRuntime("reorder:shardedkslack(eventtt, symbol, 0)");
+    }
+
+    private SiddhiAppRuntime createRuntime(String function) {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String inStreamDefinition = "define stream inputStream (eventtt long, symbol string, volume long);";
+        String query = "@info(name = 'query1') from inputStream#" + function + " " +
+                "select eventtt, symbol, volume insert into outputStream;";
+        siddhiManager.setExtension("reorder:shardedkslack", ShardedKSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    timestamps.add((Long) event.getData()[0]);
+                    keyTimestamps.computeIfAbsent((String) event.getData()[1], k -> new ArrayList<>())
+                            .add((Long) event.getData()[0]);
+                }
+            }
+        });
+        return executionPlanRuntime;
+    }
+
+    private static Event event(long timestamp, String symbol) {
+        return new Event(System.currentTimeMillis(), new Object[]{timestamp, symbol, 100L});
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.execution.reorder;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This is the test case for TieredKSlackExtension.
+ */
+public class TieredKSlackExtensionTestCase {
+    private static final Logger log = Logger.getLogger(TieredKSlackExtensionTestCase.class);
+    private List<Long> tier0Events;
+    private List<Long> tier1Events;
+
+    @BeforeMethod
+    public void init() {
+        tier0Events = new ArrayList<>();
+        tier1Events = new ArrayList<>();
+    }
+
+    @Test
+    public void tieredOrderTest() throws InterruptedException {
+        log.info("TieredKSlackExtensionTestCase TestCase 1");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#reorder:tieredkslack(eventtt, 2L, 5L) " +
+                "select eventtt, price, volume, tier " +
+                "insert into outputStream;";
+        siddhiManager.setExtension("reorder:tieredkslack", TieredKSlackExtension.class);
+        SiddhiAppRuntime executionPlanRuntime = siddhiManager.createSiddhiAppRuntime(
+                inStreamDefinition + query);
+
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if ((Integer) event.getData()[3] == 0) {
+                        tier0Events.add((Long) event.getData()[0]);
+                    } else {
+                        tier1Events.add((Long) event.getData()[0]);
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{1L, 700L, 100L});
+        inputHandler.send(new Object[]{4L, 60L, 200L});
+        inputHandler.send(new Object[]{3L, 60L, 200L});
+        inputHandler.send(new Object[]{5L, 700L, 100L});
+        inputHandler.send(new Object[]{6L, 60L, 200L});
+        inputHandler.send(new Object[]{9L, 60L, 200L});
+        inputHandler.send(new Object[]{7L, 700L, 100L});
+        inputHandler.send(new Object[]{8L, 60L, 200L});
+        inputHandler.send(new Object[]{10L, 60L, 200L});
+        inputHandler.send(new Object[]{13L, 60L, 200L});
+
+        executionPlanRuntime.shutdown();
+        AssertJUnit.assertEquals(Arrays.asList(1L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), tier0Events);
+        AssertJUnit.assertEquals(Arrays.asList(1L, 3L, 4L, 5L, 6L, 7L, 8L), tier1Events);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void tieredDuplicateLatencyTest() {
+        log.info("TieredKSlackExtensionTestCase for duplicate tier latencies");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:tieredkslack(eventtt, 2L, 2L) "
+                + "select eventtt, price, volume, tier insert into outputStream;");
+        siddhiManager.setExtension("reorder:tieredkslack", TieredKSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void tieredNonConstantLatencyTest() {
+        log.info("TieredKSlackExtensionTestCase for non constant tier latency");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (eventtt long, price long, volume long);";
+        String query = ("@info(name = 'query1') from inputStream#reorder:tieredkslack(eventtt, price) "
+                + "select eventtt, price, volume, tier insert into outputStream;");
+        siddhiManager.setExtension("reorder:tieredkslack", TieredKSlackExtension.class);
+        siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+    }
+}